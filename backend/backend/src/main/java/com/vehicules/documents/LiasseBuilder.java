@@ -5,4 +5,10 @@ public interface LiasseBuilder {
     void construireCertificatCession(String infoVendeur, String infoAcheteur);
     void construireBonCommande(String infoCommande, double montant);
     LiasseDocuments getResultat();
+    
+    // Étapes sans effet de bord : le directeur peut les exécuter en parallèle
+    // puis assembler les documents lui-même, dans l'ordre de la liasse
+    Document creerDemandeImmatriculation(String infoVehicule, String infoClient);
+    Document creerCertificatCession(String infoVendeur, String infoAcheteur);
+    Document creerBonCommande(String infoCommande, double montant);
 }
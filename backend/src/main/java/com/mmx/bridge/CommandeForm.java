@@ -0,0 +1,30 @@
+package com.mmx.bridge;
+
+class CommandeForm extends Form {
+    public CommandeForm(FormRenderer renderer) {
+        super(renderer);
+    }
+    
+    @Override
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(renderer.renderForm());
+        sb.append(renderer.renderField("client", "text"));
+        sb.append(renderer.renderField("vehicule", "select"));
+        sb.append(renderer.renderField("montant", "number"));
+        sb.append("</form>" + (renderer instanceof HtmlFormRenderer ? "" : ""));
+        return sb.toString();
+    }
+    
+    @Override
+    public PlanFormulaire compiler() {
+        return new PlanFormulaire(renderer,
+            renderer.renderForm()
+                + renderer.renderField("client", "text")
+                + renderer.renderSelect("vehicule"),
+            renderer.renderOption("${id}", "${marque} ${modele} - ${prix} €"),
+            renderer.renderSelectEnd()
+                + renderer.renderField("montant", "number")
+                + renderer.renderFormEnd());
+    }
+}
@@ -0,0 +1,17 @@
+package com.mmx.bridge;
+
+abstract class Form {
+    protected FormRenderer renderer;
+    
+    public Form(FormRenderer renderer) {
+        this.renderer = renderer;
+    }
+    
+    public abstract String render();
+    
+    /**
+     * Plan de rendu du formulaire rempli avec une liste de véhicules : les fragments fixes
+     * sont produits une fois par le renderer, les valeurs y sont insérées ({@link PlanFormulaire}).
+     */
+    public abstract PlanFormulaire compiler();
+}
@@ -0,0 +1,86 @@
+package com.mmx.bridge;
+
+class HtmlFormRenderer implements FormRenderer {
+    @Override
+    public String renderForm() {
+        return "<form method='post'>";
+    }
+    
+    @Override
+    public String renderField(String name, String type) {
+        return "<input type='" + type + "' name='" + name + "' />";
+    }
+    
+    @Override
+    public String renderFormEnd() {
+        return "</form>";
+    }
+    
+    @Override
+    public String renderTitle(String title) {
+        return "<h1>" + title + "</h1>";
+    }
+    
+    @Override
+    public String renderSelect(String name) {
+        return "<select name='" + name + "'>";
+    }
+    
+    @Override
+    public String renderSelectEnd() {
+        return "</select>";
+    }
+    
+    @Override
+    public String renderOption(String value, String label) {
+        return "<option value='" + value + "'>" + label + "</option>";
+    }
+    
+    @Override
+    public String renderListStart() {
+        return "<ul>";
+    }
+    
+    @Override
+    public String renderListItem(String text) {
+        return "<li>" + text + "</li>";
+    }
+    
+    @Override
+    public String renderListEnd() {
+        return "</ul>";
+    }
+    
+    @Override
+    public String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String entite;
+            switch (c) {
+                case '<': entite = "&lt;"; break;
+                case '>': entite = "&gt;"; break;
+                case '&': entite = "&amp;"; break;
+                case '\'': entite = "&#39;"; break;
+                case '"': entite = "&quot;"; break;
+                default: entite = null;
+            }
+            if (entite != null && sb == null) {
+                sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (sb != null) {
+                if (entite != null) {
+                    sb.append(entite);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb != null ? sb.toString() : value;
+    }
+    
+    @Override
+    public String contentType() {
+        return "text/html;charset=UTF-8";
+    }
+}
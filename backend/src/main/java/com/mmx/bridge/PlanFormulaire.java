@@ -0,0 +1,66 @@
+package com.mmx.bridge;
+
+import com.mmx.model.Vehicule;
+import com.mmx.template.GabaritDocument;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Plan de rendu compilé pour un couple (formulaire, renderer) : un en-tête et un pied fixes,
+ * et un gabarit de ligne répété pour chaque véhicule.
+ *
+ * Le renderer n'est appelé qu'à la compilation ; le rendu ne fait qu'écrire les fragments
+ * et les valeurs échappées directement dans le flux de la réponse, ligne par ligne.
+ */
+final class PlanFormulaire {
+
+    static final String[] CHAMPS_LIGNE = { "id", "marque", "modele", "type", "prix", "stock" };
+
+    private static final ThreadLocal<DecimalFormat> FORMAT_PRIX = ThreadLocal.withInitial(() -> {
+        DecimalFormat format = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.FRANCE));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    });
+
+    private final FormRenderer renderer;
+    private final String entete;
+    private final GabaritDocument ligne;
+    private final String pied;
+
+    PlanFormulaire(FormRenderer renderer, String entete, String ligne, String pied) {
+        this.renderer = renderer;
+        this.entete = entete;
+        this.ligne = GabaritDocument.compiler(ligne, CHAMPS_LIGNE);
+        this.pied = pied;
+    }
+
+    String getContentType() {
+        return renderer.contentType();
+    }
+
+    void ecrire(Iterator<? extends Vehicule> vehicules, Writer sortie) throws IOException {
+        sortie.write(entete);
+        StringBuilder tampon = new StringBuilder(256);
+        String[] valeurs = new String[CHAMPS_LIGNE.length];
+        DecimalFormat formatPrix = FORMAT_PRIX.get();
+        while (vehicules.hasNext()) {
+            Vehicule vehicule = vehicules.next();
+            valeurs[0] = String.valueOf(vehicule.getId());
+            valeurs[1] = renderer.escape(String.valueOf(vehicule.getMarque()));
+            valeurs[2] = renderer.escape(String.valueOf(vehicule.getModele()));
+            valeurs[3] = renderer.escape(vehicule.getType());
+            valeurs[4] = formatPrix.format(vehicule.getPrix());
+            valeurs[5] = Integer.toString(vehicule.getStock());
+            tampon.setLength(0);
+            ligne.rendre(tampon, valeurs);
+            sortie.append(tampon);
+        }
+        sortie.write(pied);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mmx.composite;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Nœud de la hiérarchie des clients (table clients, colonne societe_mere_id).
+ * Un client sans filiale est une feuille, un client avec filiales un groupe (Composite).
+ */
+public class NoeudClient {
+    private Long id;
+    private String nom;
+    private String email;
+    private String telephone;
+    private String typeClient;
+    private String secteurActivite;
+    private int nombreEmployes;
+    private Long societeMereId;
+    private LocalDateTime createdAt;
+    private final List<NoeudClient> filiales = new CopyOnWriteArrayList<>();
+    
+    public NoeudClient(Long id, String nom, String typeClient, String secteurActivite,
+                       int nombreEmployes, Long societeMereId) {
+        this.id = id;
+        this.nom = nom;
+        this.typeClient = typeClient;
+        this.secteurActivite = secteurActivite;
+        this.nombreEmployes = nombreEmployes;
+        this.societeMereId = societeMereId;
+    }
+    
+    public void ajouterFiliale(NoeudClient filiale) {
+        filiales.add(filiale);
+    }
+    
+    public void retirerFiliale(NoeudClient filiale) {
+        filiales.remove(filiale);
+    }
+    
+    public List<NoeudClient> getFiliales() {
+        return new ArrayList<>(filiales);
+    }
+    
+    public boolean isGroupe() {
+        return !filiales.isEmpty();
+    }
+    
+    public int getNombreTotalEmployes() {
+        int total = nombreEmployes;
+        for (NoeudClient filiale : filiales) {
+            total += filiale.getNombreTotalEmployes();
+        }
+        return total;
+    }
+    
+    // Getters et setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getNom() { return nom; }
+    public void setNom(String nom) { this.nom = nom; }
+    
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    
+    public String getTelephone() { return telephone; }
+    public void setTelephone(String telephone) { this.telephone = telephone; }
+    
+    public String getTypeClient() { return typeClient; }
+    public void setTypeClient(String typeClient) { this.typeClient = typeClient; }
+    
+    public String getSecteurActivite() { return secteurActivite; }
+    public void setSecteurActivite(String secteurActivite) { this.secteurActivite = secteurActivite; }
+    
+    public int getNombreEmployes() { return nombreEmployes; }
+    public void setNombreEmployes(int nombreEmployes) { this.nombreEmployes = nombreEmployes; }
+    
+    public Long getSocieteMereId() { return societeMereId; }
+    public void setSocieteMereId(Long societeMereId) { this.societeMereId = societeMereId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    @Override
+    public String toString() {
+        return "NoeudClient [id=" + id + ", nom=" + nom + ", filiales=" + filiales.size() + "]";
+    }
+}
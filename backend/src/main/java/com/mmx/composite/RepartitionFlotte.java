@@ -0,0 +1,65 @@
+package com.mmx.composite;
+
+import java.util.Arrays;
+
+/**
+ * Répartition exacte d'un nombre entier de véhicules selon des poids
+ * (méthode du plus fort reste) : la somme des parts vaut toujours le total demandé.
+ */
+public final class RepartitionFlotte {
+    
+    private RepartitionFlotte() {
+    }
+    
+    /**
+     * @param total nombre de véhicules à répartir (>= 0)
+     * @param poids poids de chaque bénéficiaire (>= 0) ; si tous sont nuls, répartition égale
+     * @return nombre de véhicules par bénéficiaire, dans l'ordre des poids
+     */
+    public static int[] repartir(int total, long[] poids) {
+        if (total < 0) {
+            throw new IllegalArgumentException("Nombre de véhicules négatif : " + total);
+        }
+        int n = poids.length;
+        int[] parts = new int[n];
+        if (n == 0) {
+            return parts;
+        }
+        
+        long somme = 0;
+        for (long p : poids) {
+            if (p < 0) {
+                throw new IllegalArgumentException("Poids négatif : " + p);
+            }
+            somme += p;
+        }
+        long[] effectifs = poids;
+        if (somme == 0) {
+            effectifs = new long[n];
+            Arrays.fill(effectifs, 1L);
+            somme = n;
+        }
+        
+        // Quotient entier et reste exacts (aucune erreur d'arrondi flottant)
+        long[] restes = new long[n];
+        int attribues = 0;
+        for (int i = 0; i < n; i++) {
+            long produit = (long) total * effectifs[i];
+            parts[i] = (int) (produit / somme);
+            restes[i] = produit % somme;
+            attribues += parts[i];
+        }
+        
+        // Les véhicules restants vont aux plus forts restes (à égalité, au premier)
+        Integer[] ordre = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ordre[i] = i;
+        }
+        long[] r = restes;
+        Arrays.sort(ordre, (a, b) -> r[a] != r[b] ? Long.compare(r[b], r[a]) : Integer.compare(a, b));
+        for (int k = 0; k < total - attribues; k++) {
+            parts[ordre[k]]++;
+        }
+        return parts;
+    }
+}
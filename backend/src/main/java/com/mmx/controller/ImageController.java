@@ -0,0 +1,96 @@
+package com.mmx.controller;
+
+import com.mmx.service.ImageVehiculeService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin(origins = "*")
+public class ImageController {
+    
+    private final ImageVehiculeService imageVehiculeService;
+    
+    public ImageController(ImageVehiculeService imageVehiculeService) {
+        this.imageVehiculeService = imageVehiculeService;
+    }
+    
+    @PostMapping("/vehicules/{id}")
+    public ResponseEntity<Map<String, Object>> uploadImage(@PathVariable Long id,
+                                                           @RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Fichier image vide");
+        }
+        String empreinte;
+        try (InputStream in = file.getInputStream()) {
+            empreinte = imageVehiculeService.enregistrer(id, in);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("vehiculeId", id);
+        response.put("imageId", empreinte);
+        response.put("thumbnailUrl", "/api/images/" + empreinte + "/thumb");
+        response.put("mediumUrl", "/api/images/" + empreinte + "/medium");
+        response.put("originalUrl", "/api/images/" + empreinte + "/original");
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Les fichiers sont immuables (nommés par leur empreinte) : ETag fort, cache d'un an,
+     * et 304 sans lire le disque si le client a déjà l'image.
+     */
+    @GetMapping("/{imageId}/{size}")
+    public ResponseEntity<?> getImage(@PathVariable String imageId, @PathVariable String size,
+                                      WebRequest webRequest, HttpServletRequest request) throws IOException {
+        ImageVehiculeService.Taille taille = ImageVehiculeService.Taille.depuis(size);
+        String etag = "\"" + imageId + "-" + taille.name().toLowerCase(Locale.ROOT) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        Path fichier;
+        try {
+            fichier = imageVehiculeService.obtenir(imageId, taille);
+        } catch (RejectedExecutionException e) {
+            // Miniature pas encore prête et rendus saturés : le client réessaie peu après
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .cacheControl(CacheControl.noStore())
+                .body(response);
+        }
+        if (fichier == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long longueur = Files.size(fichier);
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic())
+            .contentType(MediaType.parseMediaType(imageVehiculeService.typeMime(fichier, taille)))
+            .contentLength(longueur);
+        
+        if (EnvoiFichier.preparer(request, fichier, longueur)) {
+            return reponse.build();
+        }
+        return reponse.body(new FileSystemResource(fichier));
+    }
+}
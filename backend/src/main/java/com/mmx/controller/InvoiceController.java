@@ -1,16 +1,27 @@
 package com.mmx.controller;
 
+import com.mmx.dto.DocumentArchiveDTO;
 import com.mmx.pdf.InvoicePDFService;
 import com.mmx.pdf.PDFGeneratorBuilder;
 import com.mmx.pdf.Invoice;
+import com.mmx.service.DocumentArchiveService;
+import com.mmx.service.FactureDocumentService;
+import com.mmx.service.InvoiceExportService;
 import com.mmx.service.InvoiceService;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/invoices")
@@ -18,47 +29,97 @@ import java.io.IOException;
 public class InvoiceController {
     
     private final InvoiceService invoiceService;
+    private final InvoiceExportService invoiceExportService;
+    private final FactureDocumentService factureDocumentService;
+    private final DocumentArchiveService documentArchiveService;
     
-    public InvoiceController(InvoiceService invoiceService) {
+    public InvoiceController(InvoiceService invoiceService, InvoiceExportService invoiceExportService,
+                             FactureDocumentService factureDocumentService,
+                             DocumentArchiveService documentArchiveService) {
         this.invoiceService = invoiceService;
+        this.invoiceExportService = invoiceExportService;
+        this.factureDocumentService = factureDocumentService;
+        this.documentArchiveService = documentArchiveService;
     }
     
     @PostMapping("/{id}/generate-pdf")
-    public ResponseEntity<byte[]> generateInvoicePDF(
+    public ResponseEntity<Resource> generateInvoicePDF(
             @PathVariable Long id,
-            @RequestBody PDFRequest request) {
-        
-        try {
-            Invoice invoice = invoiceService.getInvoiceById(id);
-            
-            if (invoice == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            // Utilisation du Builder Pattern pour configurer le générateur
-            InvoicePDFService pdfService = new PDFGeneratorBuilder()
-                .withLogo(request.isIncludeLogo())
-                .withQRCode(request.isIncludeQRCode())
-                .withFooterText("MMX Véhicules - Facture N° " + invoice.getInvoiceNumber())
-                .build();
-            
-            byte[] pdfBytes = pdfService.generateInvoicePDF(invoice);
-            String fileName = pdfService.getPDFMetadata(invoice);
-            
-            // Mettre à jour le statut de la facture
-            invoiceService.markInvoiceAsPDFGenerated(id);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", fileName);
-            headers.setContentLength(pdfBytes.length);
-            
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-            
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(("Erreur lors de la génération du PDF: " + e.getMessage()).getBytes());
+            @RequestBody PDFRequest request,
+            HttpServletRequest httpRequest) throws IOException {
+        
+        Invoice invoice = invoiceService.getInvoiceById(id);
+        
+        if (invoice == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Resource pdf = factureDocumentService.genererPDF(invoice,
+            request.isIncludeLogo(), request.isIncludeQRCode(), request.getWatermark());
+        invoiceService.markInvoiceAsPDFGenerated(id);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", factureDocumentService.nomFichier(invoice));
+        headers.setContentLength(pdf.contentLength());
+        
+        // PDF servi depuis le cache disque : envoyé par le connecteur sans passer par la JVM
+        if (pdf.isFile() && EnvoiFichier.preparer(httpRequest, pdf.getFile().toPath(), pdf.contentLength())) {
+            return new ResponseEntity<>(headers, HttpStatus.OK);
         }
+        return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
+    }
+    
+    /**
+     * Archive le PDF de la facture dans la table documents (rendu repris du cache si possible).
+     */
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<DocumentArchiveDTO> archiveInvoicePDF(
+            @PathVariable Long id,
+            @RequestBody PDFRequest request) throws IOException {
+        
+        Invoice invoice = invoiceService.getInvoiceById(id);
+        
+        if (invoice == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Resource pdf = factureDocumentService.genererPDF(invoice,
+            request.isIncludeLogo(), request.isIncludeQRCode(), request.getWatermark());
+        DocumentArchiveDTO archive = documentArchiveService.archiver(
+            invoice.getInvoiceNumber(), "Facture", "PDF", factureDocumentService.nomFichier(invoice), "application/pdf",
+            out -> {
+                try (InputStream in = pdf.getInputStream()) {
+                    in.transferTo(out);
+                }
+            });
+        
+        return ResponseEntity.ok(archive);
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoicesZip(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeLogo,
+            @RequestParam(defaultValue = "false") boolean includeQRCode) {
+        
+        InvoicePDFService pdfService = new PDFGeneratorBuilder()
+            .withLogo(includeLogo)
+            .withQRCode(includeQRCode)
+            .build();
+        
+        // Les PDF sont rendus en parallèle et ajoutés à l'archive au fur et à mesure
+        StreamingResponseBody body = out -> invoiceExportService.exporterZip(
+            invoiceService.findInvoices(from, to, status), pdfService, out);
+        
+        String fileName = "factures_" + (from != null ? from : "debut") + "_" + (to != null ? to : "fin") + ".zip";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", fileName);
+        
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
     
     @PostMapping("/{id}/validate")
@@ -80,14 +141,16 @@ public class InvoiceController {
     }
     
     @GetMapping
-    public ResponseEntity<java.util.List<Invoice>> getAllInvoices() {
-        return ResponseEntity.ok(invoiceService.getAllInvoices());
+    public ResponseEntity<java.util.List<Invoice>> getAllInvoices(WebRequest webRequest) {
+        return ReponsesConditionnelles.repondre(webRequest, invoiceService.getVersionFactures(),
+            invoiceService::getAllInvoices);
     }
     
     // Classe DTO pour la requête PDF
     static class PDFRequest {
         private boolean includeLogo;
         private boolean includeQRCode;
+        private String watermark;
         
         // Getters et setters
         public boolean isIncludeLogo() { return includeLogo; }
@@ -95,5 +158,8 @@ public class InvoiceController {
         
         public boolean isIncludeQRCode() { return includeQRCode; }
         public void setIncludeQRCode(boolean includeQRCode) { this.includeQRCode = includeQRCode; }
+        
+        public String getWatermark() { return watermark; }
+        public void setWatermark(String watermark) { this.watermark = watermark; }
     }
 }
@@ -1,7 +1,17 @@
 package com.mmx.controller;
 
+import com.mmx.builder.LiasseDocument;
+import com.mmx.dto.DocumentArchiveDTO;
+import com.mmx.service.DocumentArchiveService;
+import com.mmx.service.EvenementService;
+import com.mmx.service.LiasseService;
+import org.springframework.core.io.Resource;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @RestController
@@ -9,9 +19,23 @@ import java.util.*;
 @CrossOrigin(origins = "http://localhost:5173")
 public class OrderController {
 
+    // Format des documents de liasse réellement archivés (texte)
+    private static final String FORMAT_ARCHIVE = "TXT";
+
     private List<Map<String, Object>> orders = new ArrayList<>();
     private int orderIdCounter = 1;
 
+    private final LiasseService liasseService;
+    private final DocumentArchiveService documentArchiveService;
+    private final EvenementService evenementService;
+
+    public OrderController(LiasseService liasseService, DocumentArchiveService documentArchiveService,
+                           EvenementService evenementService) {
+        this.liasseService = liasseService;
+        this.documentArchiveService = documentArchiveService;
+        this.evenementService = evenementService;
+    }
+
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getAllOrders() {
         return ResponseEntity.ok(orders);
@@ -42,6 +66,7 @@ public class OrderController {
         order.put("currency", "EUR");
         
         orders.add(order);
+        evenementService.publier(EvenementService.SUJET_COMMANDES, "order-created", new HashMap<>(order));
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -86,6 +111,7 @@ public class OrderController {
                 if ("livrée".equals(newStatus)) {
                     order.put("deliveredAt", new Date());
                 }
+                publierStatut(order);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
@@ -102,7 +128,7 @@ public class OrderController {
     @PostMapping("/{id}/documents")
     public ResponseEntity<Map<String, Object>> generateDocuments(
             @PathVariable int id,
-            @RequestParam(defaultValue = "PDF") String format) {
+            @RequestParam(defaultValue = "PDF") String format) throws IOException {
         
         Optional<Map<String, Object>> orderOpt = orders.stream()
             .filter(o -> (int) o.get("id") == id)
@@ -113,21 +139,60 @@ public class OrderController {
         }
         
         Map<String, Object> order = orderOpt.get();
+        String orderNumber = (String) order.get("orderNumber");
+        List<?> options = (List<?>) order.getOrDefault("options", Collections.emptyList());
+        LiasseDocument liasse = liasseService.genererLiasseComplete(
+            (long) id,
+            String.valueOf(order.getOrDefault("clientName", "Client")),
+            String.valueOf(order.getOrDefault("vehicleModel", "Véhicule")),
+            ((Number) order.get("subtotal")).doubleValue(),
+            options.stream().map(String::valueOf).toArray(String[]::new),
+            format
+        );
+        
+        // Chaque document est archivé en base ; un contenu identique n'est stocké qu'une fois
         List<Map<String, Object>> documents = Arrays.asList(
-            createDocument("Demande d'immatriculation", format, order),
-            createDocument("Certificat de cession", format, order),
-            createDocument("Bon de commande", format, order)
+            archiveDocument("Demande d'immatriculation", liasse.getDemandeImmatriculation(), liasse.getFormat(), order),
+            archiveDocument("Certificat de cession", liasse.getCertificatCession(), liasse.getFormat(), order),
+            archiveDocument("Bon de commande", liasse.getBonCommande(), liasse.getFormat(), order)
         );
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", "Documents générés en format " + format);
+        response.put("message", "Documents générés en format " + liasse.getFormat());
+        response.put("orderNumber", orderNumber);
         response.put("documents", documents);
         response.put("generatedAt", new Date());
         
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/documents")
+    public ResponseEntity<List<DocumentArchiveDTO>> getDocuments(@PathVariable int id) {
+        return ResponseEntity.ok(documentArchiveService.getDocumentsCommande(orderNumber(id)));
+    }
+
+    /**
+     * Téléchargement d'un document archivé. Les requêtes Range sont prises en charge
+     * (réponse 206) : seuls les blocs couvrant la plage demandée sont lus en base.
+     */
+    @GetMapping("/{id}/documents/{documentId}")
+    public ResponseEntity<Resource> downloadDocument(@PathVariable int id, @PathVariable long documentId) {
+        DocumentArchiveDTO document = documentArchiveService.getDocument(documentId);
+        if (document == null || !orderNumber(id).equals(document.getCommandeReference())) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(document.getTypeMime()));
+        headers.setContentDispositionFormData("attachment", document.getNomFichier());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(documentArchiveService.ouvrir(document));
+    }
+
     @PostMapping("/calculate")
     public ResponseEntity<Map<String, Object>> calculateOrder(@RequestBody Map<String, Object> calculationRequest) {
         double subtotal = calculateSubtotal(calculationRequest);
@@ -168,15 +233,43 @@ public class OrderController {
         }
     }
 
-    private Map<String, Object> createDocument(String type, String format, Map<String, Object> order) {
+    private void publierStatut(Map<String, Object> order) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("id", order.get("id"));
+        delta.put("orderNumber", order.get("orderNumber"));
+        delta.put("status", order.get("status"));
+        delta.put("statusUpdatedAt", order.get("statusUpdatedAt"));
+        delta.put("deliveredAt", order.get("deliveredAt"));
+        evenementService.publier(EvenementService.SUJET_COMMANDES, "order-status", delta);
+    }
+
+    private static String orderNumber(int id) {
+        return "CMD-" + String.format("%06d", id);
+    }
+
+    private Map<String, Object> archiveDocument(String type, String contenu, String format,
+                                                Map<String, Object> order) throws IOException {
+        String orderNumber = (String) order.get("orderNumber");
+        byte[] octets = contenu.getBytes(StandardCharsets.UTF_8);
+        // Les documents de liasse sont du texte, quel que soit le format demandé :
+        // le format archivé est celui du contenu réellement stocké
+        DocumentArchiveDTO archive = documentArchiveService.archiver(
+            orderNumber, type, FORMAT_ARCHIVE,
+            type.substring(0, 3).toUpperCase() + "-" + orderNumber + ".txt",
+            "text/plain;charset=UTF-8",
+            out -> out.write(octets));
+        
         Map<String, Object> doc = new HashMap<>();
+        doc.put("id", archive.getId());
         doc.put("type", type);
-        doc.put("format", format);
-        doc.put("reference", "DOC-" + type.substring(0, 3).toUpperCase() + "-" + 
-                 order.get("orderNumber") + "-" + System.currentTimeMillis());
-        doc.put("content", type + " pour la commande " + order.get("orderNumber"));
+        doc.put("format", FORMAT_ARCHIVE);
+        doc.put("requestedFormat", format);
+        doc.put("reference", "DOC-" + type.substring(0, 3).toUpperCase() + "-" + orderNumber + "-" + archive.getId());
+        doc.put("fileName", archive.getNomFichier());
+        doc.put("hash", archive.getEmpreinte());
+        doc.put("size", archive.getTaille());
+        doc.put("downloadUrl", "/api/orders/" + order.get("id") + "/documents/" + archive.getId());
         doc.put("generatedAt", new Date());
-        doc.put("size", format.equals("PDF") ? "2.5 MB" : "1.8 MB");
         
         return doc;
     }
@@ -0,0 +1,39 @@
+package com.mmx.controller;
+
+import com.mmx.service.VersionDonnees;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Réponses GET conditionnelles (If-None-Match, If-Modified-Since) à partir d'un compteur de versions.
+ */
+final class ReponsesConditionnelles {
+
+    private ReponsesConditionnelles() {
+    }
+
+    /**
+     * Répond 304 si le client a déjà la version courante ; sinon appelle {@code corps}
+     * et renvoie le résultat avec ETag et Last-Modified.
+     * L'ETag, faible, vaut pour toutes les représentations (JSON, CBOR) : le cache partagé
+     * distingue les encodages par l'en-tête Vary.
+     */
+    static <T> ResponseEntity<T> repondre(WebRequest webRequest, VersionDonnees versionDonnees, Supplier<T> corps) {
+        // Version lue avant les données : au pire l'ETag est plus ancien que le contenu, jamais l'inverse
+        long version = versionDonnees.getVersion();
+        long derniereModification = versionDonnees.getDerniereModification();
+        String etag = versionDonnees.etag(version);
+        if (webRequest.checkNotModified(etag, derniereModification)) {
+            // Spring écrit le 304 avec les en-têtes de validation ; aucun contenu n'est produit
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .lastModified(derniereModification)
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(corps.get());
+    }
+}
@@ -0,0 +1,122 @@
+package com.mmx.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Fiche véhicule du catalogue (/api/vehicles), immuable.
+ *
+ * Sérialisée par un sérialiseur écrit à la main : les champs sont émis directement,
+ * sans Map intermédiaire, sans introspection des getters ni nombres boxés.
+ * Les noms de propriétés JSON sont ceux de l'ancienne réponse en Map.
+ */
+@JsonSerialize(using = CatalogueVehiculeDTO.Serialiseur.class)
+public final class CatalogueVehiculeDTO {
+
+    /** Paire d'options qui ne peuvent pas être commandées ensemble. */
+    public static final class Incompatibilite {
+        private final String option1;
+        private final String option2;
+
+        public Incompatibilite(String option1, String option2) {
+            this.option1 = option1;
+            this.option2 = option2;
+        }
+
+        public String getOption1() { return option1; }
+        public String getOption2() { return option2; }
+    }
+
+    private final int id;
+    private final String name;
+    private final String fuelType;
+    private final String type;
+    private final int price;
+    private final int originalPrice;
+    private final int stock;
+    private final String description;
+    private final boolean isNew;
+    private final String image;
+    private final List<String> options;
+    private final List<Incompatibilite> incompatibleOptions;
+    private final Date createdAt;
+
+    public CatalogueVehiculeDTO(int id, String name, String fuelType, String type, int price, int originalPrice,
+                                int stock, String description, boolean isNew, String image, List<String> options,
+                                List<Incompatibilite> incompatibleOptions, Date createdAt) {
+        this.id = id;
+        this.name = name;
+        this.fuelType = fuelType;
+        this.type = type;
+        this.price = price;
+        this.originalPrice = originalPrice;
+        this.stock = stock;
+        this.description = description;
+        this.isNew = isNew;
+        this.image = image;
+        this.options = List.copyOf(options);
+        this.incompatibleOptions = List.copyOf(incompatibleOptions);
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getFuelType() { return fuelType; }
+    public String getType() { return type; }
+    public int getPrice() { return price; }
+    public int getOriginalPrice() { return originalPrice; }
+    public int getStock() { return stock; }
+    public String getDescription() { return description; }
+    public boolean isNew() { return isNew; }
+    public String getImage() { return image; }
+    public List<String> getOptions() { return options; }
+    public List<Incompatibilite> getIncompatibleOptions() { return incompatibleOptions; }
+    public Date getCreatedAt() { return createdAt; }
+
+    public static final class Serialiseur extends StdSerializer<CatalogueVehiculeDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serialiseur() {
+            super(CatalogueVehiculeDTO.class);
+        }
+
+        @Override
+        public void serialize(CatalogueVehiculeDTO v, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("id", v.id);
+            gen.writeStringField("name", v.name);
+            gen.writeStringField("fuelType", v.fuelType);
+            gen.writeStringField("type", v.type);
+            gen.writeNumberField("price", v.price);
+            gen.writeNumberField("originalPrice", v.originalPrice);
+            gen.writeNumberField("stock", v.stock);
+            gen.writeStringField("description", v.description);
+            gen.writeBooleanField("isNew", v.isNew);
+            gen.writeStringField("image", v.image);
+            gen.writeArrayFieldStart("options");
+            for (String option : v.options) {
+                gen.writeString(option);
+            }
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("incompatibleOptions");
+            for (Incompatibilite incompatibilite : v.incompatibleOptions) {
+                gen.writeStartObject();
+                gen.writeStringField("option1", incompatibilite.option1);
+                gen.writeStringField("option2", incompatibilite.option2);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            // Format de date de l'ObjectMapper (horodatage ou ISO selon la configuration)
+            provider.defaultSerializeField("createdAt", v.createdAt, gen);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mmx.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Société de la hiérarchie clients (/api/companies), immuable.
+ * Les filiales et l'effectif total ne sont présents que pour un groupe vu depuis la racine.
+ */
+@JsonSerialize(using = SocieteDTO.Serialiseur.class)
+public final class SocieteDTO {
+
+    private final Long id;
+    private final String name;
+    private final String type;
+    private final int employees;
+    private final boolean isGroup;
+    private final LocalDateTime createdAt;
+    private final List<SocieteDTO> subsidiaries;
+    private final Integer totalEmployees;
+
+    public SocieteDTO(Long id, String name, String type, int employees, boolean isGroup, LocalDateTime createdAt,
+                      List<SocieteDTO> subsidiaries, Integer totalEmployees) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.employees = employees;
+        this.isGroup = isGroup;
+        this.createdAt = createdAt;
+        this.subsidiaries = subsidiaries != null ? List.copyOf(subsidiaries) : null;
+        this.totalEmployees = totalEmployees;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getType() { return type; }
+    public int getEmployees() { return employees; }
+    public boolean isGroup() { return isGroup; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public List<SocieteDTO> getSubsidiaries() { return subsidiaries; }
+    public Integer getTotalEmployees() { return totalEmployees; }
+
+    public static final class Serialiseur extends StdSerializer<SocieteDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serialiseur() {
+            super(SocieteDTO.class);
+        }
+
+        @Override
+        public void serialize(SocieteDTO societe, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            if (societe.id != null) {
+                gen.writeNumberField("id", societe.id);
+            } else {
+                gen.writeNullField("id");
+            }
+            gen.writeStringField("name", societe.name);
+            gen.writeStringField("type", societe.type);
+            gen.writeNumberField("employees", societe.employees);
+            gen.writeBooleanField("isGroup", societe.isGroup);
+            provider.defaultSerializeField("createdAt", societe.createdAt, gen);
+            if (societe.subsidiaries != null) {
+                gen.writeArrayFieldStart("subsidiaries");
+                for (SocieteDTO filiale : societe.subsidiaries) {
+                    serialize(filiale, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            if (societe.totalEmployees != null) {
+                gen.writeNumberField("totalEmployees", societe.totalEmployees);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mmx.iterator;
+
+import com.mmx.model.*;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Critères de recherche dans le catalogue (type, énergie, fourchette de prix, stock).
+ *
+ * Le type et l'énergie désignent des sous-classes de {@link Vehicule} : une source indexée par classe
+ * (ou la clause TYPE() d'une requête JPQL) les applique avant le parcours. Le reste est soit
+ * transmis à la requête, soit évalué au fil de l'eau par {@link #predicatResiduel()}.
+ */
+public final class CritereVehicule {
+
+    private String type;
+    private String energie;
+    private double prixMin = 0;
+    private double prixMax = Double.MAX_VALUE;
+    private Boolean enStock;
+
+    public static CritereVehicule tous() {
+        return new CritereVehicule();
+    }
+
+    /** "automobile" (ou "car") / "scooter" ; null ou vide : tous. */
+    public CritereVehicule type(String type) {
+        this.type = normaliser(type);
+        return this;
+    }
+
+    /** "electrique" (ou "electric") / "essence" (ou "gasoline") ; null ou vide : toutes. */
+    public CritereVehicule energie(String energie) {
+        this.energie = normaliser(energie);
+        return this;
+    }
+
+    public CritereVehicule prixEntre(Double min, Double max) {
+        this.prixMin = min != null ? min : 0;
+        this.prixMax = max != null ? max : Double.MAX_VALUE;
+        return this;
+    }
+
+    public CritereVehicule enStock(Boolean enStock) {
+        this.enStock = enStock;
+        return this;
+    }
+
+    public double getPrixMin() { return prixMin; }
+    public double getPrixMax() { return prixMax; }
+    public Boolean getEnStock() { return enStock; }
+
+    /** Sous-classes retenues par le type et l'énergie. */
+    public List<Class<? extends Vehicule>> classes() {
+        List<Class<? extends Vehicule>> classes = new ArrayList<>(4);
+        boolean automobile = type == null || type.equals("automobile") || type.equals("car");
+        boolean scooter = type == null || type.equals("scooter");
+        boolean electrique = energie == null || energie.equals("electrique") || energie.equals("electric");
+        boolean essence = energie == null || energie.equals("essence") || energie.equals("gasoline");
+        if (automobile && essence) classes.add(AutomobileEssence.class);
+        if (automobile && electrique) classes.add(AutomobileElectrique.class);
+        if (scooter && essence) classes.add(ScooterEssence.class);
+        if (scooter && electrique) classes.add(ScooterElectrique.class);
+        return classes;
+    }
+
+    /** Critères restant à évaluer une fois la sélection par classe faite ; null s'il n'y en a pas. */
+    public Predicate<Vehicule> predicatResiduel() {
+        if (prixMin <= 0 && prixMax == Double.MAX_VALUE && enStock == null) {
+            return null;
+        }
+        double min = prixMin;
+        double max = prixMax;
+        Boolean stock = enStock;
+        return v -> v.getPrix() >= min && v.getPrix() <= max && (stock == null || v.isEnStock() == stock);
+    }
+
+    private static String normaliser(String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            return null;
+        }
+        return Normalizer.normalize(valeur.trim(), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+    }
+}
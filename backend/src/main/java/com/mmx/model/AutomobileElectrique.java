@@ -1,8 +1,17 @@
 package com.mmx.model;
 
+import javax.persistence.DiscriminatorValue;
+import javax.persistence.Entity;
+import javax.persistence.Transient;
+
+@Entity
+@DiscriminatorValue("AUTO_ELECTRIQUE")
 public class AutomobileElectrique extends Vehicule {
     
+    // Caractéristiques techniques : pas de colonne dans la table vehicules
+    @Transient
     private int autonomie; // km
+    @Transient
     private int tempsRecharge; // heures
     
     public AutomobileElectrique() {}
@@ -1,8 +1,17 @@
 package com.mmx.model;
 
+import javax.persistence.DiscriminatorValue;
+import javax.persistence.Entity;
+import javax.persistence.Transient;
+
+@Entity
+@DiscriminatorValue("SCOOTER_ELECTRIQUE")
 public class ScooterElectrique extends Vehicule {
     
+    // Caractéristiques techniques : pas de colonne dans la table vehicules
+    @Transient
     private int autonomie; // km
+    @Transient
     private int puissance; // kW
     
     public ScooterElectrique() {}
@@ -1,8 +1,17 @@
 package com.mmx.model;
 
+import javax.persistence.DiscriminatorValue;
+import javax.persistence.Entity;
+import javax.persistence.Transient;
+
+@Entity
+@DiscriminatorValue("SCOOTER_ESSENCE")
 public class ScooterEssence extends Vehicule {
     
+    // Caractéristiques techniques : pas de colonne dans la table vehicules
+    @Transient
     private int cylindree; // cm³
+    @Transient
     private double consommation; // L/100km
     
     public ScooterEssence() {}
@@ -0,0 +1,193 @@
+package com.mmx.observer;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Livraison asynchrone des événements à un observateur.
+ *
+ * Chaque abonnement a sa propre file bornée, vidée par un seul thread à la fois
+ * (l'ordre des événements est conservé pour cet observateur). Le comportement
+ * lorsque la file est pleine dépend de la {@link Politique}.
+ *
+ * Avec une fenêtre de regroupement, les changements reçus pendant la fenêtre sont fusionnés
+ * en un seul {@link LotEvenements} : une mise à jour en masse produit un lot, pas des milliers d'événements.
+ * Le lot en cours est borné à la même capacité (événements après fusion) et la politique s'y applique.
+ * Le minuteur ne bloque jamais : en {@link Politique#BLOQUER}, un lot qui ne trouve pas de place
+ * dans la file reste ouvert et est retenté à la fenêtre suivante ; c'est l'émetteur qui attend
+ * si ce lot atteint à son tour la capacité.
+ */
+public final class Abonnement {
+
+    public enum Politique {
+        /** Abandonne l'événement le plus ancien en attente (notifications : seul le récent compte). */
+        REJETER_ANCIEN,
+        /** Abandonne le nouvel événement. */
+        REJETER_NOUVEAU,
+        /** Bloque l'émetteur jusqu'à ce qu'une place se libère (observateur qui doit tout recevoir). */
+        BLOQUER
+    }
+
+    private final Observer observer;
+    private final Politique politique;
+    private final Executor executor;
+    private final ScheduledExecutorService minuteur;
+    private final long fenetreMillis;
+    private final int capacite;
+    /** Événements unitaires, ou lots si une fenêtre de regroupement est définie. */
+    private final ArrayBlockingQueue<Object> file;
+    private final LotEvenements.Accumulateur lotEnCours = new LotEvenements.Accumulateur();
+    private final AtomicBoolean planifie = new AtomicBoolean();
+    private final AtomicLong livres = new AtomicLong();
+    private final AtomicLong rejetes = new AtomicLong();
+    private volatile boolean actif = true;
+
+    Abonnement(Observer observer, int capacite, Politique politique, Duration fenetre,
+               Executor executor, ScheduledExecutorService minuteur) {
+        this.observer = observer;
+        this.politique = politique;
+        this.fenetreMillis = fenetre.toMillis();
+        this.capacite = capacite;
+        this.executor = executor;
+        this.minuteur = minuteur;
+        this.file = new ArrayBlockingQueue<>(capacite);
+    }
+
+    void offrir(EvenementCatalogue evenement) {
+        if (!actif) {
+            return;
+        }
+        if (fenetreMillis <= 0) {
+            enfiler(evenement);
+            return;
+        }
+        boolean premier;
+        synchronized (lotEnCours) {
+            if (!lotEnCours.accepte(evenement, capacite)) {
+                switch (politique) {
+                    case REJETER_ANCIEN:
+                        lotEnCours.retirerPlusAncien();
+                        rejetes.incrementAndGet();
+                        break;
+                    case REJETER_NOUVEAU:
+                        rejetes.incrementAndGet();
+                        return;
+                    default:
+                        try {
+                            while (actif && !lotEnCours.accepte(evenement, capacite)) {
+                                lotEnCours.wait();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            rejetes.incrementAndGet();
+                            return;
+                        }
+                        if (!actif) {
+                            return;
+                        }
+                }
+            }
+            premier = lotEnCours.ajouter(evenement);
+        }
+        if (premier) {
+            minuteur.schedule(this::fermerLot, fenetreMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Exécuté sur le minuteur partagé : ne doit jamais bloquer. */
+    private void fermerLot() {
+        LotEvenements lot;
+        synchronized (lotEnCours) {
+            if (!actif || lotEnCours.estVide()) {
+                return;
+            }
+            if (politique == Politique.BLOQUER && file.remainingCapacity() == 0) {
+                // File pleine : le lot reste ouvert (et continue de fusionner), nouvel essai après une fenêtre
+                minuteur.schedule(this::fermerLot, fenetreMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+            lot = lotEnCours.extraire();
+            lotEnCours.notifyAll();
+        }
+        // Seul producteur de la file en mode fenêtré : la place vérifiée ci-dessus est toujours libre
+        enfiler(lot);
+    }
+
+    private void enfiler(Object element) {
+        switch (politique) {
+            case REJETER_ANCIEN:
+                while (!file.offer(element)) {
+                    if (file.poll() != null) {
+                        rejetes.incrementAndGet();
+                    }
+                }
+                break;
+            case REJETER_NOUVEAU:
+                if (!file.offer(element)) {
+                    rejetes.incrementAndGet();
+                    return;
+                }
+                break;
+            default:
+                try {
+                    file.put(element);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejetes.incrementAndGet();
+                    return;
+                }
+        }
+        planifier();
+    }
+
+    private void planifier() {
+        if (planifie.compareAndSet(false, true)) {
+            executor.execute(this::vider);
+        }
+    }
+
+    private void vider() {
+        try {
+            Object element;
+            while (actif && (element = file.poll()) != null) {
+                try {
+                    if (element instanceof LotEvenements) {
+                        observer.onLot((LotEvenements) element);
+                    } else {
+                        observer.onEvenement((EvenementCatalogue) element);
+                    }
+                    livres.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // Un observateur défaillant ne doit pas bloquer sa file
+                    System.err.println("Observateur en erreur: " + e.getMessage());
+                }
+            }
+        } finally {
+            planifie.set(false);
+            if (actif && !file.isEmpty()) {
+                planifier();
+            }
+        }
+    }
+
+    void annuler() {
+        actif = false;
+        file.clear();
+        synchronized (lotEnCours) {
+            lotEnCours.extraire();
+            lotEnCours.notifyAll();
+        }
+    }
+
+    public Observer getObserver() { return observer; }
+    public Politique getPolitique() { return politique; }
+    public long getFenetreMillis() { return fenetreMillis; }
+    public int getEnAttente() { return file.size(); }
+    public long getLivres() { return livres.get(); }
+    public long getRejetes() { return rejetes.get(); }
+}
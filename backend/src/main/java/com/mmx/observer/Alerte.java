@@ -0,0 +1,38 @@
+package com.mmx.observer;
+
+/**
+ * Recherche permanente d'un client : « Tesla à moins de 40 000 € », « scooter électrique rouge ».
+ * Un critère null accepte toutes les valeurs.
+ */
+public final class Alerte {
+
+    private final long id;
+    private final String client;
+    private final String marque;
+    private final String type;
+    private final String couleur;
+    private final double prixMax;
+
+    Alerte(long id, String client, String marque, String type, String couleur, Double prixMax) {
+        this.id = id;
+        this.client = client;
+        this.marque = marque;
+        this.type = type;
+        this.couleur = couleur;
+        this.prixMax = prixMax != null ? prixMax : Double.POSITIVE_INFINITY;
+    }
+
+    public long getId() { return id; }
+    public String getClient() { return client; }
+    public String getMarque() { return marque; }
+    public String getType() { return type; }
+    public String getCouleur() { return couleur; }
+    public double getPrixMax() { return prixMax; }
+
+    @Override
+    public String toString() {
+        return "Alerte #" + id + " (" + client + ": " + (marque != null ? marque : "toutes marques")
+            + (type != null ? ", " + type : "") + (couleur != null ? ", " + couleur : "")
+            + (prixMax != Double.POSITIVE_INFINITY ? ", < " + String.format("%.0f", prixMax) + " €" : "") + ")";
+    }
+}
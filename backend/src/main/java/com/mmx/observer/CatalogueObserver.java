@@ -1,36 +1,5 @@
 package com.mmx.observer;
 
-import java.util.ArrayList;
-import java.util.List;
-
-class CatalogueVehicule implements Subject {
-    private List<Observer> observers = new ArrayList<>();
-    private String dernierVehiculeAjoute;
-    
-    public void ajouterVehicule(String vehicule) {
-        this.dernierVehiculeAjoute = vehicule;
-        System.out.println("Nouveau véhicule ajouté: " + vehicule);
-        notifyObservers();
-    }
-    
-    @Override
-    public void registerObserver(Observer observer) {
-        observers.add(observer);
-    }
-    
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
-    }
-    
-    @Override
-    public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update("Nouveau véhicule disponible: " + dernierVehiculeAjoute);
-        }
-    }
-}
-
 class ClientNotifier implements Observer {
     private String nom;
     
@@ -49,4 +18,23 @@ class StockManager implements Observer {
     public void update(String message) {
         System.out.println("Gestionnaire de stock notifié: " + message);
     }
+    
+    @Override
+    public void onEvenement(EvenementCatalogue evenement) {
+        if (evenement.getType() == EvenementCatalogue.Type.VEHICULE_VENDU) {
+            System.out.println("Sortie de stock: " + evenement.getVehicule());
+        } else {
+            update(evenement.getMessage());
+        }
+    }
+    
+    @Override
+    public void onLot(LotEvenements lot) {
+        if (lot.getEvenements().size() == 1) {
+            onEvenement(lot.getEvenements().get(0));
+            return;
+        }
+        System.out.println("Gestionnaire de stock: " + lot.getVehicules().size() + " véhicules à mettre à jour ("
+            + lot.getNombreChangements() + " changements)");
+    }
 }
@@ -0,0 +1,104 @@
+package com.mmx.observer;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Catalogue observable : les écritures publient un événement typé puis rendent la main aussitôt,
+ * la livraison se fait de façon asynchrone par abonnement (voir {@link Abonnement}).
+ * Le registre est copié à l'écriture : inscriptions et publications peuvent être concurrentes.
+ */
+public class CatalogueVehicule implements Subject {
+    private static final int CAPACITE_PAR_DEFAUT = 256;
+    private static final Duration FENETRE_PAR_DEFAUT = Duration.ofMillis(250);
+    
+    private static final ExecutorService LIVRAISON = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "catalogue-observateurs");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService MINUTEUR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalogue-lots");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final List<Abonnement> abonnements = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    private final ScheduledExecutorService minuteur;
+    private volatile EvenementCatalogue dernierEvenement;
+    
+    public CatalogueVehicule() {
+        this(LIVRAISON, MINUTEUR);
+    }
+    
+    public CatalogueVehicule(Executor executor, ScheduledExecutorService minuteur) {
+        this.executor = executor;
+        this.minuteur = minuteur;
+    }
+    
+    public void ajouterVehicule(String vehicule) {
+        System.out.println("Nouveau véhicule ajouté: " + vehicule);
+        publier(EvenementCatalogue.vehiculeAjoute(vehicule));
+    }
+    
+    public void modifierPrix(String vehicule, double ancienPrix, double nouveauPrix) {
+        publier(EvenementCatalogue.prixModifie(vehicule, ancienPrix, nouveauPrix));
+    }
+    
+    public void vendreVehicule(String vehicule) {
+        publier(EvenementCatalogue.vehiculeVendu(vehicule));
+    }
+    
+    /** Abonnement par défaut : changements regroupés par lots de {@link #FENETRE_PAR_DEFAUT}. */
+    @Override
+    public void registerObserver(Observer observer) {
+        registerObserver(observer, CAPACITE_PAR_DEFAUT, Abonnement.Politique.REJETER_ANCIEN, FENETRE_PAR_DEFAUT);
+    }
+    
+    /**
+     * @param fenetre durée de regroupement des changements ; {@link Duration#ZERO} pour une livraison unitaire
+     */
+    public Abonnement registerObserver(Observer observer, int capacite, Abonnement.Politique politique,
+                                       Duration fenetre) {
+        Abonnement abonnement = new Abonnement(observer, capacite, politique, fenetre, executor, minuteur);
+        abonnements.add(abonnement);
+        return abonnement;
+    }
+    
+    @Override
+    public void removeObserver(Observer observer) {
+        for (Abonnement abonnement : abonnements) {
+            if (abonnement.getObserver() == observer && abonnements.remove(abonnement)) {
+                abonnement.annuler();
+            }
+        }
+    }
+    
+    /** Republie le dernier événement à tous les observateurs. */
+    @Override
+    public void notifyObservers() {
+        EvenementCatalogue evenement = dernierEvenement;
+        if (evenement != null) {
+            publier(evenement);
+        }
+    }
+    
+    public List<Abonnement> getAbonnements() {
+        return Collections.unmodifiableList(abonnements);
+    }
+    
+    /** Publie un événement déjà construit, par exemple décrivant un {@link com.mmx.model.Vehicule}. */
+    public void publier(EvenementCatalogue evenement) {
+        dernierEvenement = evenement;
+        for (Abonnement abonnement : abonnements) {
+            abonnement.offrir(evenement);
+        }
+    }
+}
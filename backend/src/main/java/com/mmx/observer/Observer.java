@@ -2,4 +2,14 @@ package com.mmx.observer;
 
 public interface Observer {
     void update(String message);
+
+    /** Réception d'un événement typé ; par défaut, seul son message est transmis. */
+    default void onEvenement(EvenementCatalogue evenement) {
+        update(evenement.getMessage());
+    }
+
+    /** Réception d'un lot de changements regroupés ; par défaut, un seul message pour tout le lot. */
+    default void onLot(LotEvenements lot) {
+        update(lot.getMessage());
+    }
 }
@@ -29,8 +29,14 @@ public class PDFGeneratorBuilder {
         return this;
     }
     
+    /**
+     * Options de rendu sous forme canonique, pour les clés de cache des documents.
+     */
+    public String getSignature() {
+        return includeLogo + "|" + includeQRCode + "|" + footerText + "|" + watermark;
+    }
+    
     public InvoicePDFService build() {
-        // Pour l'instant retourne l'adapteur PDFBox
-        return new PDFBoxAdapter();
+        return new PDFBoxAdapter(includeLogo, includeQRCode, footerText, watermark);
     }
 }
@@ -0,0 +1,120 @@
+package com.mmx.repository;
+
+import com.mmx.dto.DocumentArchiveDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Archive des documents générés.
+ * Un contenu est stocké une seule fois par empreinte SHA-256, découpé en blocs de
+ * taille fixe : l'écriture et la lecture (y compris partielle) ne manipulent qu'un bloc à la fois.
+ */
+@Repository
+public class DocumentRepository {
+
+    public static final int TAILLE_BLOC = 256 * 1024;
+
+    // IGNORE : si un autre enregistrement a réservé la même empreinte, il fournit les blocs
+    private static final String SQL_INSERT_CONTENU =
+        "INSERT IGNORE INTO document_contenus (empreinte, taille, type_mime) VALUES (?, ?, ?)";
+
+    private static final String SQL_INSERT_BLOC =
+        "INSERT INTO document_blocs (empreinte, numero, donnees) VALUES (?, ?, ?)";
+
+    private static final String SQL_SELECT_BLOC =
+        "SELECT donnees FROM document_blocs WHERE empreinte = ? AND numero = ?";
+
+    // Ré-archiver un contenu identique pour la même commande et le même type réutilise la ligne existante
+    // (LAST_INSERT_ID(id) renvoie alors son identifiant comme clé générée)
+    private static final String SQL_INSERT_DOCUMENT =
+        "INSERT INTO documents (commande_reference, type_document, format, nom_fichier, empreinte, taille) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), format = VALUES(format), nom_fichier = VALUES(nom_fichier)";
+
+    private static final String SQL_SELECT_DOCUMENT =
+        "SELECT d.id, d.commande_reference, d.type_document, d.format, d.nom_fichier, d.empreinte, d.taille, " +
+        "       d.created_at, c.type_mime " +
+        "FROM documents d JOIN document_contenus c ON c.empreinte = d.empreinte ";
+
+    private static final RowMapper<DocumentArchiveDTO> DOCUMENT_MAPPER = (rs, rowNum) -> {
+        DocumentArchiveDTO document = new DocumentArchiveDTO(
+            rs.getLong("id"),
+            rs.getString("commande_reference"),
+            rs.getString("type_document"),
+            rs.getString("format"),
+            rs.getString("nom_fichier"),
+            rs.getString("empreinte"),
+            rs.getLong("taille"),
+            rs.getString("type_mime")
+        );
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        document.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        return document;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Réserve un contenu.
+     * @return faux si ce contenu est déjà archivé (ses blocs ne doivent pas être réécrits)
+     */
+    public boolean insererContenu(String empreinte, long taille, String typeMime) {
+        return jdbcTemplate.update(SQL_INSERT_CONTENU, empreinte, taille, typeMime) == 1;
+    }
+
+    public void insererBloc(String empreinte, int numero, byte[] donnees, int longueur) {
+        jdbcTemplate.update(SQL_INSERT_BLOC, ps -> {
+            ps.setString(1, empreinte);
+            ps.setInt(2, numero);
+            ps.setBinaryStream(3, new ByteArrayInputStream(donnees, 0, longueur), longueur);
+        });
+    }
+
+    public byte[] lireBloc(String empreinte, int numero) {
+        List<byte[]> blocs = jdbcTemplate.query(SQL_SELECT_BLOC, (rs, rowNum) -> rs.getBytes("donnees"), empreinte, numero);
+        if (blocs.isEmpty()) {
+            throw new IllegalStateException("Bloc " + numero + " manquant pour le contenu " + empreinte);
+        }
+        return blocs.get(0);
+    }
+
+    /** Insère les métadonnées, ou reprend la ligne existante pour (commande, type, empreinte). */
+    public DocumentArchiveDTO insererDocument(DocumentArchiveDTO document) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SQL_INSERT_DOCUMENT, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, document.getCommandeReference());
+            ps.setString(2, document.getTypeDocument());
+            ps.setString(3, document.getFormat());
+            ps.setString(4, document.getNomFichier());
+            ps.setString(5, document.getEmpreinte());
+            ps.setLong(6, document.getTaille());
+            return ps;
+        }, keyHolder);
+        document.setId(keyHolder.getKey().longValue());
+        return document;
+    }
+
+    public DocumentArchiveDTO trouverParId(long id) {
+        List<DocumentArchiveDTO> documents = jdbcTemplate.query(SQL_SELECT_DOCUMENT + "WHERE d.id = ?", DOCUMENT_MAPPER, id);
+        return documents.isEmpty() ? null : documents.get(0);
+    }
+
+    public List<DocumentArchiveDTO> trouverParCommande(String commandeReference) {
+        return jdbcTemplate.query(SQL_SELECT_DOCUMENT + "WHERE d.commande_reference = ? ORDER BY d.id",
+            DOCUMENT_MAPPER, commandeReference);
+    }
+}
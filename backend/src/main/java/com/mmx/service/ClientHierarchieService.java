@@ -0,0 +1,274 @@
+package com.mmx.service;
+
+import com.mmx.composite.NoeudClient;
+import com.mmx.dto.SocieteDTO;
+import com.mmx.repository.ClientHierarchieRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hiérarchie des sociétés clientes (Composite) chargée une seule fois depuis la base,
+ * conservée en mémoire et mise à jour de façon incrémentale à chaque modification.
+ */
+@Service
+public class ClientHierarchieService {
+    
+    private final ClientHierarchieRepository repository;
+    
+    // Remplacés d'un bloc au rechargement : un lecteur sans verrou voit l'ancien arbre ou le nouveau, jamais un arbre vide
+    private volatile Map<Long, NoeudClient> noeuds = new ConcurrentHashMap<>();
+    private volatile List<NoeudClient> racines = new ArrayList<>();
+    private volatile boolean charge = false;
+    private boolean modeDemo = false;
+    // Fixé au chargement après le plus grand identifiant existant
+    private long prochainIdDemo;
+    
+    // Vue sérialisable de l'arbre, reconstruite uniquement après une modification
+    private volatile List<SocieteDTO> vueCache;
+    private final VersionDonnees versionHierarchie = new VersionDonnees("societes");
+    
+    public ClientHierarchieService(ClientHierarchieRepository repository) {
+        this.repository = repository;
+    }
+    
+    // =========================================
+    // LECTURE
+    // =========================================
+    
+    public List<SocieteDTO> getHierarchie() {
+        List<SocieteDTO> vue = vueCache;
+        if (vue == null) {
+            synchronized (this) {
+                assurerChargement();
+                vue = vueCache;
+                if (vue == null) {
+                    vue = construireVue(racines);
+                    vueCache = vue;
+                }
+            }
+        }
+        return vue;
+    }
+    
+    /** Incrémentée à chaque modification de l'arbre (validateur HTTP, cache des réponses). */
+    public VersionDonnees getVersionHierarchie() {
+        return versionHierarchie;
+    }
+    
+    public NoeudClient getClient(Long id) {
+        assurerChargement();
+        return noeuds.get(id);
+    }
+    
+    public List<SocieteDTO> getFiliales(Long id) {
+        NoeudClient client = getClient(id);
+        if (client == null) {
+            return Collections.emptyList();
+        }
+        List<SocieteDTO> filiales = new ArrayList<>();
+        for (NoeudClient filiale : client.getFiliales()) {
+            filiales.add(versDTO(filiale, false));
+        }
+        return filiales;
+    }
+    
+    // =========================================
+    // MISES À JOUR INCRÉMENTALES
+    // =========================================
+    
+    public synchronized NoeudClient ajouterClient(NoeudClient client) {
+        assurerChargement();
+        if (client.getEmail() == null || client.getEmail().trim().isEmpty()) {
+            throw new IllegalArgumentException("L'email du client est obligatoire");
+        }
+        NoeudClient mere = null;
+        if (client.getSocieteMereId() != null) {
+            mere = noeuds.get(client.getSocieteMereId());
+            if (mere == null) {
+                throw new IllegalArgumentException("Société mère introuvable : " + client.getSocieteMereId());
+            }
+        }
+        client.setId(modeDemo ? prochainIdDemo++ : repository.inserer(client));
+        client.setCreatedAt(LocalDateTime.now());
+        noeuds.put(client.getId(), client);
+        if (mere != null) {
+            mere.ajouterFiliale(client);
+        } else {
+            racines.add(client);
+        }
+        invalider();
+        return client;
+    }
+    
+    public synchronized void changerSocieteMere(Long clientId, Long nouvelleMereId) {
+        assurerChargement();
+        NoeudClient client = noeuds.get(clientId);
+        if (client == null) {
+            throw new IllegalArgumentException("Client introuvable : " + clientId);
+        }
+        NoeudClient nouvelleMere = null;
+        if (nouvelleMereId != null) {
+            nouvelleMere = noeuds.get(nouvelleMereId);
+            if (nouvelleMere == null) {
+                throw new IllegalArgumentException("Société mère introuvable : " + nouvelleMereId);
+            }
+            if (estDansSousArbre(client, nouvelleMere)) {
+                throw new IllegalArgumentException("Une société ne peut pas devenir filiale de sa propre filiale");
+            }
+        }
+        if (!modeDemo) {
+            repository.changerSocieteMere(clientId, nouvelleMereId);
+        }
+        detacher(client);
+        client.setSocieteMereId(nouvelleMereId);
+        if (nouvelleMere != null) {
+            nouvelleMere.ajouterFiliale(client);
+        } else {
+            racines.add(client);
+        }
+        invalider();
+    }
+    
+    public synchronized boolean supprimerClient(Long clientId) {
+        assurerChargement();
+        NoeudClient client = noeuds.get(clientId);
+        if (client == null) {
+            return false;
+        }
+        if (client.isGroupe()) {
+            throw new IllegalArgumentException("Impossible de supprimer une société qui possède des filiales");
+        }
+        if (!modeDemo) {
+            repository.supprimer(clientId);
+        }
+        detacher(client);
+        noeuds.remove(clientId);
+        invalider();
+        return true;
+    }
+    
+    /**
+     * Recharge toute la hiérarchie depuis la base (modifications faites hors application).
+     */
+    public synchronized void recharger() {
+        charge = false;
+        assurerChargement();
+    }
+    
+    // =========================================
+    // CHARGEMENT
+    // =========================================
+    
+    private void assurerChargement() {
+        if (charge) {
+            return;
+        }
+        synchronized (this) {
+            if (charge) {
+                return;
+            }
+            List<NoeudClient> lignes;
+            try {
+                lignes = repository.chargerHierarchie();
+                modeDemo = false;
+            } catch (DataAccessException e) {
+                System.err.println("Base indisponible, hiérarchie de démonstration utilisée : " + e.getMessage());
+                lignes = hierarchieDemo();
+                modeDemo = true;
+            }
+            Map<Long, NoeudClient> nouveauxNoeuds = new ConcurrentHashMap<>();
+            List<NoeudClient> nouvellesRacines = new ArrayList<>();
+            long idMax = 0L;
+            // Les lignes arrivent parents d'abord : un seul passage suffit
+            for (NoeudClient noeud : lignes) {
+                nouveauxNoeuds.put(noeud.getId(), noeud);
+                idMax = Math.max(idMax, noeud.getId());
+                NoeudClient mere = noeud.getSocieteMereId() != null ? nouveauxNoeuds.get(noeud.getSocieteMereId()) : null;
+                if (mere != null) {
+                    mere.ajouterFiliale(noeud);
+                } else {
+                    nouvellesRacines.add(noeud);
+                }
+            }
+            noeuds = nouveauxNoeuds;
+            racines = nouvellesRacines;
+            prochainIdDemo = idMax + 1;
+            invalider();
+            charge = true;
+        }
+    }
+    
+    private void invalider() {
+        vueCache = null;
+        versionHierarchie.incrementer();
+    }
+    
+    private void detacher(NoeudClient client) {
+        NoeudClient ancienneMere = client.getSocieteMereId() != null ? noeuds.get(client.getSocieteMereId()) : null;
+        if (ancienneMere != null) {
+            ancienneMere.retirerFiliale(client);
+        } else {
+            racines.remove(client);
+        }
+    }
+    
+    private boolean estDansSousArbre(NoeudClient racine, NoeudClient candidat) {
+        for (NoeudClient courant = candidat; courant != null;
+             courant = courant.getSocieteMereId() != null ? noeuds.get(courant.getSocieteMereId()) : null) {
+            if (courant == racine) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private List<SocieteDTO> construireVue(List<NoeudClient> niveau) {
+        List<SocieteDTO> vue = new ArrayList<>(niveau.size());
+        for (NoeudClient noeud : niveau) {
+            vue.add(versDTO(noeud, true));
+        }
+        return Collections.unmodifiableList(vue);
+    }
+    
+    private SocieteDTO versDTO(NoeudClient noeud, boolean avecFiliales) {
+        boolean detail = avecFiliales && noeud.isGroupe();
+        return new SocieteDTO(noeud.getId(), noeud.getNom(), noeud.getSecteurActivite(), noeud.getNombreEmployes(),
+            noeud.isGroupe(), noeud.getCreatedAt(),
+            detail ? construireVue(noeud.getFiliales()) : null,
+            detail ? noeud.getNombreTotalEmployes() : null);
+    }
+    
+    private List<NoeudClient> hierarchieDemo() {
+        List<NoeudClient> demo = new ArrayList<>();
+        demo.add(demoClient(1L, "Groupe Automobile France", "Holding", 1200, null));
+        demo.add(demoClient(11L, "Tech Innovators Inc", "Startup", 185, null));
+        demo.add(demoClient(18L, "Family Business SARL", "PME", 24, null));
+        demo.add(demoClient(19L, "Logistics Experts", "Logistique", 42, null));
+        demo.add(demoClient(2L, "Auto Distribution SA", "Distribution", 350, 1L));
+        demo.add(demoClient(6L, "Fleet Solutions SARL", "Location", 120, 1L));
+        demo.add(demoClient(10L, "Centre Technique National", "Maintenance", 85, 1L));
+        demo.add(demoClient(12L, "R&D Department", "Recherche", 45, 11L));
+        demo.add(demoClient(13L, "Sales Division", "Ventes", 65, 11L));
+        demo.add(demoClient(14L, "International Offices", "Bureaux", 75, 11L));
+        demo.add(demoClient(3L, "Concession Paris Nord", "Concession", 45, 2L));
+        demo.add(demoClient(4L, "Concession Lyon Sud", "Concession", 38, 2L));
+        demo.add(demoClient(5L, "Concession Marseille Est", "Concession", 32, 2L));
+        demo.add(demoClient(7L, "Location Paris", "Agence", 25, 6L));
+        demo.add(demoClient(8L, "Location Lyon", "Agence", 20, 6L));
+        demo.add(demoClient(9L, "Location Nice", "Agence", 18, 6L));
+        demo.add(demoClient(15L, "Tech EU - Berlin", "Bureau", 25, 14L));
+        demo.add(demoClient(16L, "Tech EU - Paris", "Bureau", 22, 14L));
+        demo.add(demoClient(17L, "Tech US - San Francisco", "Bureau", 28, 14L));
+        return demo;
+    }
+    
+    private NoeudClient demoClient(Long id, String nom, String secteur, int employes, Long mereId) {
+        NoeudClient client = new NoeudClient(id, nom, "SOCIETE", secteur, employes, mereId);
+        client.setCreatedAt(LocalDateTime.now());
+        return client;
+    }
+}
@@ -0,0 +1,103 @@
+package com.mmx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache des réponses JSON des lectures fréquentes, déjà sérialisées.
+ *
+ * Une entrée est identifiée par la requête (point d'accès et paramètres) et porte la version
+ * des données dont elle est issue : si la version a changé, elle est reconstruite, sinon ses
+ * octets sont écrits tels quels dans la réponse, sans construire ni sérialiser d'objet.
+ * La variante gzip est calculée une fois, à la construction de l'entrée.
+ */
+@Service
+public class ReponseCacheService {
+
+    // En dessous, la compression ne fait pas gagner assez pour justifier l'en-tête et le décodage
+    private static final int TAILLE_MIN_GZIP = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final int nombreMaxEntrees;
+    private final Map<String, Reponse> entrees = new LinkedHashMap<>(64, 0.75f, true);
+
+    public ReponseCacheService(ObjectMapper objectMapper,
+                               @Value("${mmx.responses.cache.max-entries:256}") int nombreMaxEntrees) {
+        this.objectMapper = objectMapper;
+        this.nombreMaxEntrees = nombreMaxEntrees;
+    }
+
+    /** Réponse sérialisée d'une version des données. */
+    public static final class Reponse {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        Reponse(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public long getVersion() { return version; }
+        public byte[] getJson() { return json; }
+        /** null si le contenu est trop petit ou ne gagne rien à être compressé. */
+        public byte[] getGzip() { return gzip; }
+    }
+
+    /**
+     * @param cle point d'accès et paramètres normalisés
+     * @param version version des données lue avant l'appel à {@code modele}
+     * @param modele construit l'objet à sérialiser, seulement si l'entrée est absente ou périmée
+     */
+    public Reponse obtenir(String cle, long version, Supplier<?> modele) {
+        Reponse reponse;
+        synchronized (entrees) {
+            reponse = entrees.get(cle);
+        }
+        if (reponse != null && reponse.version == version) {
+            return reponse;
+        }
+
+        // Hors verrou : deux constructions concurrentes d'une même entrée donnent le même résultat
+        reponse = serialiser(version, modele.get());
+        synchronized (entrees) {
+            Reponse actuelle = entrees.get(cle);
+            if (actuelle == null || actuelle.version < version) {
+                entrees.put(cle, reponse);
+                if (entrees.size() > nombreMaxEntrees) {
+                    entrees.remove(entrees.keySet().iterator().next());
+                }
+            }
+        }
+        return reponse;
+    }
+
+    private Reponse serialiser(long version, Object modele) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(modele);
+            byte[] gzip = null;
+            if (json.length >= TAILLE_MIN_GZIP) {
+                ByteArrayOutputStream tampon = new ByteArrayOutputStream(json.length / 4);
+                try (GZIPOutputStream out = new GZIPOutputStream(tampon)) {
+                    out.write(json);
+                }
+                if (tampon.size() < json.length) {
+                    gzip = tampon.toByteArray();
+                }
+            }
+            return new Reponse(version, json, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
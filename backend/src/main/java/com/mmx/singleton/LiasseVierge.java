@@ -1,19 +1,93 @@
 package com.mmx.singleton;
 
-public class LiasseVierge {
-    private static LiasseVierge instance;
+import com.mmx.template.GabaritDocument;
+
+/**
+ * Liasse vierge partagée (Singleton + poids mouche).
+ *
+ * Les trois formulaires sont compilés une seule fois en gabarits immuables : le texte fixe
+ * et la position des champs sont partagés par toutes les commandes, seules les valeurs
+ * des champs sont propres à chaque liasse remplie. L'instance est créée paresseusement par
+ * la classe Holder, sans verrou à l'accès.
+ */
+public final class LiasseVierge {
+    
+    /** Champs à remplir, dans l'ordre des valeurs passées à {@link #remplir}. */
+    public static final String[] CHAMPS = {"commande", "client", "modele", "date", "prix", "options", "listeOptions"};
+    public static final int COMMANDE = 0, CLIENT = 1, MODELE = 2, DATE = 3, PRIX = 4, OPTIONS = 5, LISTE_OPTIONS = 6;
+    
     private final String format;
+    private final GabaritDocument demandeImmatriculation;
+    private final GabaritDocument certificatCession;
+    private final GabaritDocument bonCommande;
+    private final String contenuVierge;
     
     private LiasseVierge() {
         this.format = "PDF";
+        
+        this.demandeImmatriculation = GabaritDocument.compiler(
+            "=== DEMANDE D'IMMATRICULATION ===\n" +
+            "Numéro de commande: CMD-${commande}\n" +
+            "Nom du client: ${client}\n" +
+            "Modèle du véhicule: ${modele}\n" +
+            "Type de véhicule: Voiture particulière\n" +
+            "Date de la demande: ${date}\n" +
+            "Signature du client: ________________\n" +
+            "Cachet de l'administration: [À APPOSER]", CHAMPS);
+        
+        this.certificatCession = GabaritDocument.compiler(
+            "=== CERTIFICAT DE CESSION ===\n" +
+            "Je soussigné(e), MMX Véhicules,\n" +
+            "cède à ${client}\n" +
+            "le véhicule suivant: ${modele}\n" +
+            "pour le prix de: ${prix} €\n" +
+            "Options incluses: ${options}\n" +
+            "Date de cession: ${date}\n" +
+            "Lieu: Siège social MMX Véhicules\n" +
+            "Signature du vendeur: ________________\n" +
+            "Signature de l'acheteur: ________________", CHAMPS);
+        
+        this.bonCommande = GabaritDocument.compiler(
+            "=== BON DE COMMANDE ===\n" +
+            "Référence: CMD-${commande}\n" +
+            "Date: ${date}\n" +
+            "\n" +
+            "CLIENT:\n" +
+            "Nom: ${client}\n" +
+            "\n" +
+            "VÉHICULE COMMANDÉ:\n" +
+            "Modèle: ${modele}\n" +
+            "Prix de base: ${prix} €\n" +
+            "\n" +
+            "OPTIONS:\n" +
+            "${listeOptions}\n" +
+            "\n" +
+            "MONTANT TOTAL: ${prix} €\n" +
+            "\n" +
+            "CONDITIONS:\n" +
+            "  • Paiement à la livraison\n" +
+            "  • Livraison sous 15 jours ouvrables\n" +
+            "  *Garantie: 24 mois\n" +
+            "\n" +
+            "STATUT: COMMANDE CONFIRMÉE\n" +
+            "\n" +
+            "Signature: ________________", CHAMPS);
+        
+        this.contenuVierge = "LIASSE VIERGE\n" +
+               "Format: " + format + "\n" +
+               "1. Demande d'immatriculation: [VIDE]\n" +
+               "2. Certificat de cession: [VIDE]\n" +
+               "3. Bon de commande: [VIDE]\n";
+        
         System.out.println("Création de la liasse vierge au format " + format);
     }
     
-    public static synchronized LiasseVierge getInstance() {
-        if (instance == null) {
-            instance = new LiasseVierge();
-        }
-        return instance;
+    private static final class Holder {
+        private static final LiasseVierge INSTANCE = new LiasseVierge();
+    }
+    
+    public static LiasseVierge getInstance() {
+        return Holder.INSTANCE;
     }
     
     public String getFormat() {
@@ -21,11 +95,21 @@ public class LiasseVierge {
     }
     
     public String getLiasseVierge() {
-        return "LIASSE VIERGE\n" +
-               "Format: " + format + "\n" +
-               "1. Demande d'immatriculation: [VIDE]\n" +
-               "2. Certificat de cession: [VIDE]\n" +
-               "3. Bon de commande: [VIDE]\n";
+        return contenuVierge;
+    }
+    
+    /**
+     * Remplit les trois formulaires : le texte fixe est recopié depuis la liasse vierge
+     * et les valeurs sont insérées à la place des champs ; la liasse vierge n'est jamais modifiée.
+     *
+     * @return demande d'immatriculation, certificat de cession, bon de commande
+     */
+    public String[] remplir(String[] valeurs) {
+        return new String[] {
+            demandeImmatriculation.rendre(valeurs),
+            certificatCession.rendre(valeurs),
+            bonCommande.rendre(valeurs)
+        };
     }
     
     public void afficherInfo() {
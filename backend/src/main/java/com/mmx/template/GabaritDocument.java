@@ -0,0 +1,81 @@
+package com.mmx.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gabarit de document texte compilé une seule fois.
+ *
+ * La source contient des variables {@code ${nom}} ; la compilation la découpe en
+ * segments (texte fixe ou indice de variable) selon l'ordre des noms fournis.
+ * Le rendu ne fait ensuite qu'ajouter les segments dans un tampon réutilisé par thread,
+ * sans analyse, recherche par nom ni concaténations intermédiaires.
+ */
+public final class GabaritDocument {
+
+    private static final ThreadLocal<StringBuilder> TAMPON = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String[] textes;      // textes[i] précède la variable variables[i]
+    private final int[] variables;
+    private final String texteFinal;
+    private final int tailleFixe;
+
+    private GabaritDocument(String[] textes, int[] variables, String texteFinal) {
+        this.textes = textes;
+        this.variables = variables;
+        this.texteFinal = texteFinal;
+        int taille = texteFinal.length();
+        for (String texte : textes) {
+            taille += texte.length();
+        }
+        this.tailleFixe = taille;
+    }
+
+    /**
+     * @param source texte du gabarit
+     * @param noms noms des variables, dans l'ordre des valeurs passées à {@link #rendre}
+     * @throws IllegalArgumentException si la source référence une variable inconnue ou mal fermée
+     */
+    public static GabaritDocument compiler(String source, String... noms) {
+        List<String> textes = new ArrayList<>();
+        List<Integer> variables = new ArrayList<>();
+        int position = 0;
+        int debut;
+        while ((debut = source.indexOf("${", position)) >= 0) {
+            int fin = source.indexOf('}', debut + 2);
+            if (fin < 0) {
+                throw new IllegalArgumentException("Variable non fermée à la position " + debut);
+            }
+            String nom = source.substring(debut + 2, fin);
+            int indice = Arrays.asList(noms).indexOf(nom);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Variable inconnue: " + nom);
+            }
+            textes.add(source.substring(position, debut));
+            variables.add(indice);
+            position = fin + 1;
+        }
+
+        return new GabaritDocument(
+            textes.toArray(new String[0]),
+            variables.stream().mapToInt(Integer::intValue).toArray(),
+            source.substring(position));
+    }
+
+    /** Ajoute le document rendu à {@code sortie}. */
+    public void rendre(StringBuilder sortie, String[] valeurs) {
+        for (int i = 0; i < textes.length; i++) {
+            sortie.append(textes[i]).append(valeurs[variables[i]]);
+        }
+        sortie.append(texteFinal);
+    }
+
+    public String rendre(String... valeurs) {
+        StringBuilder tampon = TAMPON.get();
+        tampon.setLength(0);
+        tampon.ensureCapacity(tailleFixe + 32 * variables.length);
+        rendre(tampon, valeurs);
+        return tampon.toString();
+    }
+}
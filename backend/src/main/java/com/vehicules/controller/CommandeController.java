@@ -1,9 +1,18 @@
 package com.vehicules.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vehicules.template.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/commandes")
@@ -13,9 +22,45 @@ public class CommandeController {
     private List<Map<String, Object>> commandes = new ArrayList<>();
     private int commandeCounter = 1;
     
-    // Liste complète des pays supportés
+    // Liste des pays figée : sérialisée une fois au démarrage, avec sa variante gzip
+    private final byte[] paysJson;
+    private final byte[] paysGzip;
+    
+    public CommandeController(ObjectMapper objectMapper) {
+        try {
+            this.paysJson = objectMapper.writeValueAsBytes(construirePaysSupportes());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Liste des pays non sérialisable", e);
+        }
+        this.paysGzip = compresser(paysJson);
+    }
+    
+    // Liste complète des pays supportés : octets écrits tels quels, sans objet construit par requête
     @GetMapping("/pays")
-    public Map<String, Object> getPaysSupportes() {
+    public ResponseEntity<byte[]> getPaysSupportes(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentLength(paysGzip.length)
+                .body(paysGzip);
+        }
+        return builder.contentLength(paysJson.length).body(paysJson);
+    }
+    
+    private static byte[] compresser(byte[] contenu) {
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(contenu.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(tampon)) {
+            gzip.write(contenu);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tampon.toByteArray();
+    }
+    
+    private Map<String, Object> construirePaysSupportes() {
         Map<String, Object> response = new HashMap<>();
         
         List<Map<String, String>> paysList = new ArrayList<>();
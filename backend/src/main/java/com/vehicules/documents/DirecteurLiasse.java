@@ -1,6 +1,45 @@
 package com.vehicules.documents;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directeur du Builder. Les trois documents de la liasse sont indépendants :
+ * deux sont rendus sur un pool borné et géré pendant que le thread appelant rend le troisième,
+ * la liasse est donc prête en à peu près la durée du document le plus long.
+ */
 public class DirecteurLiasse {
+    
+    private static final int CAPACITE_FILE = 64;
+    
+    // Pool borné (threads et file) ; saturé ou arrêté, le document est rendu par le thread appelant
+    // (jamais abandonné : la liasse attend son résultat). Arrêté à l'extinction de la JVM
+    private static final ExecutorService POOL_PARTAGE = new ThreadPoolExecutor(
+        2, Math.max(2, Runtime.getRuntime().availableProcessors()), 30L, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(CAPACITE_FILE), r -> {
+            Thread thread = new Thread(r, "liasse-documents");
+            thread.setDaemon(true);
+            return thread;
+        }, (tache, pool) -> tache.run());
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DirecteurLiasse::arreter, "liasse-documents-arret"));
+    }
+    
+    private final ExecutorService executor;
+    
+    public DirecteurLiasse() {
+        this(POOL_PARTAGE);
+    }
+    
+    public DirecteurLiasse(ExecutorService executor) {
+        this.executor = executor;
+    }
+    
     public LiasseDocuments construireLiasseComplete(LiasseBuilder builder, 
                                                     String infoVehicule, 
                                                     String infoClient,
@@ -8,9 +47,45 @@ public class DirecteurLiasse {
                                                     String infoAcheteur,
                                                     String infoCommande,
                                                     double montant) {
-        builder.construireDemandeImmatriculation(infoVehicule, infoClient);
-        builder.construireCertificatCession(infoVendeur, infoAcheteur);
-        builder.construireBonCommande(infoCommande, montant);
-        return builder.getResultat();
+        CompletableFuture<Document> demande = CompletableFuture.supplyAsync(
+            () -> builder.creerDemandeImmatriculation(infoVehicule, infoClient), executor);
+        CompletableFuture<Document> certificat = CompletableFuture.supplyAsync(
+            () -> builder.creerCertificatCession(infoVendeur, infoAcheteur), executor);
+        Document bonCommande = builder.creerBonCommande(infoCommande, montant);
+        
+        // Assemblage dans l'ordre habituel de la liasse
+        LiasseDocuments liasse = builder.getResultat();
+        liasse.ajouterDocument(attendre(demande));
+        liasse.ajouterDocument(attendre(certificat));
+        liasse.ajouterDocument(bonCommande);
+        return liasse;
+    }
+    
+    /** Refuse les nouveaux rendus et laisse quelques secondes aux rendus en cours. */
+    static void arreter() {
+        POOL_PARTAGE.shutdown();
+        try {
+            if (!POOL_PARTAGE.awaitTermination(5, TimeUnit.SECONDS)) {
+                POOL_PARTAGE.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            POOL_PARTAGE.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static Document attendre(CompletableFuture<Document> document) {
+        try {
+            return document.join();
+        } catch (CompletionException e) {
+            // Propager l'erreur du builder telle quelle plutôt qu'enveloppée
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
     }
 }
@@ -9,23 +9,35 @@ public class LiasseBuilderConcret implements LiasseBuilder {
     
     @Override
     public void construireDemandeImmatriculation(String infoVehicule, String infoClient) {
-        String contenu = "Véhicule: " + infoVehicule + "\nClient: " + infoClient;
-        DemandeImmatriculation doc = new DemandeImmatriculation(contenu);
-        liasse.ajouterDocument(doc);
+        liasse.ajouterDocument(creerDemandeImmatriculation(infoVehicule, infoClient));
     }
     
     @Override
     public void construireCertificatCession(String infoVendeur, String infoAcheteur) {
-        String contenu = "Vendeur: " + infoVendeur + "\nAcheteur: " + infoAcheteur;
-        CertificatCession doc = new CertificatCession(contenu);
-        liasse.ajouterDocument(doc);
+        liasse.ajouterDocument(creerCertificatCession(infoVendeur, infoAcheteur));
     }
     
     @Override
     public void construireBonCommande(String infoCommande, double montant) {
+        liasse.ajouterDocument(creerBonCommande(infoCommande, montant));
+    }
+    
+    @Override
+    public Document creerDemandeImmatriculation(String infoVehicule, String infoClient) {
+        String contenu = "Véhicule: " + infoVehicule + "\nClient: " + infoClient;
+        return new DemandeImmatriculation(contenu);
+    }
+    
+    @Override
+    public Document creerCertificatCession(String infoVendeur, String infoAcheteur) {
+        String contenu = "Vendeur: " + infoVendeur + "\nAcheteur: " + infoAcheteur;
+        return new CertificatCession(contenu);
+    }
+    
+    @Override
+    public Document creerBonCommande(String infoCommande, double montant) {
         String contenu = "Commande: " + infoCommande + "\nMontant: " + montant + "€";
-        BonCommande doc = new BonCommande(contenu);
-        liasse.ajouterDocument(doc);
+        return new BonCommande(contenu);
     }
     
     @Override
@@ -0,0 +1,29 @@
+package com.vehicules.singleton;
+
+import com.mmx.singleton.LiasseVierge;
+
+/**
+ * Accès historique au document vierge : délègue à la liasse vierge partagée
+ * plutôt que d'en maintenir une seconde copie.
+ */
+public final class DocumentViergeSingleton {
+    
+    private DocumentViergeSingleton() {
+    }
+    
+    private static final class Holder {
+        private static final DocumentViergeSingleton INSTANCE = new DocumentViergeSingleton();
+    }
+    
+    public static DocumentViergeSingleton getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    public String genererDocumentVierge() {
+        return LiasseVierge.getInstance().getLiasseVierge();
+    }
+    
+    public String getFormat() {
+        return LiasseVierge.getInstance().getFormat();
+    }
+}
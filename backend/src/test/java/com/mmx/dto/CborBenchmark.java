@@ -0,0 +1,107 @@
+package com.mmx.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.util.*;
+
+/**
+ * Compare JSON et CBOR sur les réponses lues en masse par les intégrations concessionnaires
+ * (catalogue complet, liste des commandes) : taille du corps, temps d'écriture et de lecture.
+ * Exécution : java -cp target/classes:target/test-classes:<dépendances> com.mmx.dto.CborBenchmark [iterations]
+ */
+public class CborBenchmark {
+
+    private static final ObjectMapper JSON = configurer(new ObjectMapper());
+    private static final ObjectMapper CBOR = configurer(new ObjectMapper(new CBORFactory()));
+
+    // Même configuration que les convertisseurs HTTP (dates ISO-8601)
+    private static ObjectMapper configurer(ObjectMapper mapper) {
+        return mapper.findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+
+        List<VehiculeDTO> catalogue = catalogue(500);
+        List<Map<String, Object>> commandes = commandes(500);
+
+        // Aller-retour CBOR sans perte par rapport au JSON
+        if (!JSON.readTree(JSON.writeValueAsBytes(catalogue)).equals(CBOR.readTree(CBOR.writeValueAsBytes(catalogue)))
+                || !JSON.readTree(JSON.writeValueAsBytes(commandes)).equals(CBOR.readTree(CBOR.writeValueAsBytes(commandes)))) {
+            throw new IllegalStateException("Le CBOR ne reproduit pas le contenu JSON");
+        }
+
+        System.out.println("=== BENCHMARK JSON / CBOR ===\n");
+        comparer("Catalogue (500 véhicules)", catalogue, new TypeReference<List<VehiculeDTO>>() { }, iterations);
+        comparer("Commandes (500)", commandes, new TypeReference<List<Map<String, Object>>>() { }, iterations);
+    }
+
+    private static <T> void comparer(String nom, T modele, TypeReference<T> type, int iterations) throws Exception {
+        System.out.println(nom);
+        for (ObjectMapper mapper : List.of(JSON, CBOR)) {
+            String format = mapper == JSON ? "JSON" : "CBOR";
+            byte[] corps = mapper.writeValueAsBytes(modele);
+
+            // Préchauffage JIT
+            for (int i = 0; i < iterations / 4; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(modele), type);
+            }
+
+            long debut = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                corps = mapper.writeValueAsBytes(modele);
+            }
+            long ecriture = System.nanoTime() - debut;
+
+            debut = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                mapper.readValue(corps, type);
+            }
+            long lecture = System.nanoTime() - debut;
+
+            System.out.printf("  %-4s : %7d octets, écriture %7.1f µs, lecture %7.1f µs%n",
+                format, corps.length, ecriture / 1000.0 / iterations, lecture / 1000.0 / iterations);
+        }
+        System.out.println();
+    }
+
+    private static List<VehiculeDTO> catalogue(int taille) {
+        String[][] modeles = {
+            {"Tesla", "Model 3", "ELECTRIQUE", "AUTOMOBILE"}, {"Renault", "Zoé", "ELECTRIQUE", "AUTOMOBILE"},
+            {"Peugeot", "208", "ESSENCE", "AUTOMOBILE"}, {"Yamaha", "NMAX", "ESSENCE", "SCOOTER"}
+        };
+        List<VehiculeDTO> catalogue = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            String[] m = modeles[i % modeles.length];
+            VehiculeDTO vehicule = new VehiculeDTO((long) i + 1, m[1], m[0], 20000 + i * 37.5, i % 13, m[2],
+                m[0] + " " + m[1] + " - " + m[2], m[3]);
+            vehicule.setImageUrl("/api/images/vehicules/" + (i + 1) + "/thumbnail");
+            catalogue.add(vehicule);
+        }
+        return catalogue;
+    }
+
+    private static List<Map<String, Object>> commandes(int taille) {
+        List<Map<String, Object>> commandes = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            Map<String, Object> commande = new HashMap<>();
+            commande.put("id", i + 1);
+            commande.put("orderNumber", String.format("CMD-%06d", i + 1));
+            commande.put("status", i % 3 == 0 ? "livrée" : "en cours");
+            commande.put("clientName", "Client " + i);
+            commande.put("vehicleId", 1 + i % 50);
+            commande.put("options", List.of("GPS", "Sièges chauffants"));
+            commande.put("subtotal", 30000.0 + i);
+            commande.put("taxRate", 0.2);
+            commande.put("taxAmount", (30000.0 + i) * 0.2);
+            commande.put("totalAmount", (30000.0 + i) * 1.2);
+            commande.put("currency", "EUR");
+            commande.put("createdAt", new Date(1_700_000_000_000L + i * 60_000L));
+            commandes.add(commande);
+        }
+        return commandes;
+    }
+}
@@ -0,0 +1,116 @@
+package com.mmx.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Compare la réponse du catalogue construite en Map (version d'origine) et en DTO typé
+ * à sérialiseur dédié : temps et octets alloués par réponse (construction + JSON), sur un thread.
+ * Exécution : java -cp target/classes:target/test-classes:<dépendances> com.mmx.dto.ReponsesTypeesBenchmark [iterations]
+ */
+public class ReponsesTypeesBenchmark {
+
+    private static final String IMAGE = "https://images.unsplash.com/photo-1555212697-194d092e3b8f?w=400&h=300&fit=crop";
+    private static final List<String> OPTIONS = List.of("GPS", "Sièges chauffants", "Caméra de recul");
+    private static final List<CatalogueVehiculeDTO.Incompatibilite> INCOMPATIBILITES = List.of(
+        new CatalogueVehiculeDTO.Incompatibilite("sièges sportifs", "sièges en cuir"),
+        new CatalogueVehiculeDTO.Incompatibilite("toit panoramique", "barres de toit")
+    );
+
+    // Configuration de dates de Spring Boot (ISO-8601 plutôt qu'horodatage)
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Date date = new Date();
+
+        // Les deux versions doivent produire le même document JSON
+        if (!MAPPER.readTree(MAPPER.writeValueAsBytes(catalogueMaps(date)))
+                .equals(MAPPER.readTree(MAPPER.writeValueAsBytes(catalogueDTO(date))))) {
+            throw new IllegalStateException("Le DTO ne reproduit pas la réponse d'origine");
+        }
+
+        System.out.println("=== BENCHMARK RÉPONSES TYPÉES (catalogue, 8 véhicules) ===\n");
+        mesurer("Map<String,Object>", iterations, () -> MAPPER.writeValueAsBytes(catalogueMaps(date)));
+        mesurer("DTO + sérialiseur", iterations, () -> MAPPER.writeValueAsBytes(catalogueDTO(date)));
+    }
+
+    @FunctionalInterface
+    private interface Reponse {
+        byte[] produire() throws Exception;
+    }
+
+    private static void mesurer(String nom, int iterations, Reponse reponse) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // Préchauffage JIT
+        long taille = 0;
+        for (int i = 0; i < iterations / 4; i++) {
+            taille += reponse.produire().length;
+        }
+
+        long octetsDebut = threads.getThreadAllocatedBytes(thread);
+        long debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            taille += reponse.produire().length;
+        }
+        long duree = System.nanoTime() - debut;
+        long octets = threads.getThreadAllocatedBytes(thread) - octetsDebut;
+
+        System.out.printf("%-20s : %6.2f µs / réponse, %7d octets alloués / réponse, JSON de %d octets%n",
+            nom, duree / 1000.0 / iterations, octets / iterations, taille / (iterations + iterations / 4));
+    }
+
+    private static List<CatalogueVehiculeDTO> catalogueDTO(Date date) {
+        List<CatalogueVehiculeDTO> catalogue = new ArrayList<>(8);
+        for (Object[] v : VEHICULES) {
+            int prix = (int) v[4];
+            catalogue.add(new CatalogueVehiculeDTO((int) v[0], (String) v[1], (String) v[2], (String) v[3], prix,
+                prix + 5000, (int) v[5], (String) v[6], (boolean) v[7], IMAGE, OPTIONS, INCOMPATIBILITES, date));
+        }
+        return catalogue;
+    }
+
+    /** Construction d'origine de VehicleController, conservée comme référence. */
+    private static List<Map<String, Object>> catalogueMaps(Date date) {
+        List<Map<String, Object>> catalogue = new ArrayList<>(8);
+        for (Object[] v : VEHICULES) {
+            Map<String, Object> vehicle = new HashMap<>();
+            vehicle.put("id", v[0]);
+            vehicle.put("name", v[1]);
+            vehicle.put("fuelType", v[2]);
+            vehicle.put("type", v[3]);
+            vehicle.put("price", v[4]);
+            vehicle.put("originalPrice", (int) v[4] + 5000);
+            vehicle.put("stock", v[5]);
+            vehicle.put("description", v[6]);
+            vehicle.put("isNew", v[7]);
+            vehicle.put("image", IMAGE);
+            vehicle.put("options", Arrays.asList("GPS", "Sièges chauffants", "Caméra de recul"));
+            vehicle.put("incompatibleOptions", Arrays.asList(
+                Map.of("option1", "sièges sportifs", "option2", "sièges en cuir"),
+                Map.of("option1", "toit panoramique", "option2", "barres de toit")
+            ));
+            vehicle.put("createdAt", date);
+            catalogue.add(vehicle);
+        }
+        return catalogue;
+    }
+
+    private static final Object[][] VEHICULES = {
+        {1, "Tesla Model 3", "electric", "car", 45000, 12, "Voiture électrique avec autonomie de 500km", true},
+        {2, "Renault Zoé", "electric", "car", 32000, 8, "Compacte électrique urbaine", false},
+        {3, "Peugeot 208", "gasoline", "car", 22000, 5, "Citadine essence économique", true},
+        {4, "BMW i4", "electric", "car", 55000, 3, "Berline électrique sportive", false},
+        {5, "Volkswagen Golf", "gasoline", "car", 28000, 10, "Compacte polyvalente", true},
+        {6, "Nissan Leaf", "electric", "car", 35000, 7, "Véhicule électrique fiable", false},
+        {7, "Vespa Elettrica", "electric", "scooter", 8500, 15, "Scooter électrique urbain", true},
+        {8, "Yamaha NMAX", "gasoline", "scooter", 5500, 20, "Scooter 125cc essence", false}
+    };
+}
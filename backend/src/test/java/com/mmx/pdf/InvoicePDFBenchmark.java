@@ -0,0 +1,74 @@
+package com.mmx.pdf;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mesure simple du débit de génération des factures PDF (factures / seconde / cœur).
+ * Exécution : java -cp target/classes:target/test-classes:<pdfbox> com.mmx.pdf.InvoicePDFBenchmark [secondes]
+ */
+public class InvoicePDFBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int secondes = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        System.out.println("=== BENCHMARK GÉNÉRATION PDF ===\n");
+        
+        Invoice invoice = creerFacture(12);
+        InvoicePDFService service = new PDFGeneratorBuilder()
+            .withLogo(true)
+            .withQRCode(true)
+            .withWatermark("PAYÉE")
+            .build();
+        OutputStream nul = OutputStream.nullOutputStream();
+        
+        // Préchauffage : chargement des ressources partagées et compilation JIT
+        for (int i = 0; i < 500; i++) {
+            service.writeInvoicePDF(invoice, nul);
+        }
+        
+        long taille = service.generateInvoicePDF(invoice).length;
+        long fin = System.nanoTime() + secondes * 1_000_000_000L;
+        long debut = System.nanoTime();
+        int factures = 0;
+        while (System.nanoTime() < fin) {
+            service.writeInvoicePDF(invoice, nul);
+            factures++;
+        }
+        double duree = (System.nanoTime() - debut) / 1e9;
+        
+        System.out.printf("Taille d'une facture : %d octets%n", taille);
+        System.out.printf("Factures générées     : %d en %.1f s (1 thread)%n", factures, duree);
+        System.out.printf("Débit                 : %.0f factures / seconde / cœur%n", factures / duree);
+    }
+    
+    private static Invoice creerFacture(int lignes) {
+        Invoice invoice = new Invoice();
+        invoice.setId(1L);
+        invoice.setInvoiceNumber("FAC-BENCH-001");
+        invoice.setInvoiceDate(LocalDate.now());
+        invoice.setClientName("Groupe Automobile France");
+        invoice.setClientAddress("123 Avenue des Champs-Élysées, 75008 Paris");
+        invoice.setStatus("validated");
+        
+        List<InvoiceItem> items = new ArrayList<>();
+        double sousTotal = 0;
+        for (int i = 1; i <= lignes; i++) {
+            InvoiceItem item = new InvoiceItem();
+            item.setId((long) i);
+            item.setDescription("Automobile électrique - Modèle " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(30000 + i * 1000);
+            item.setTotalPrice(item.getUnitPrice());
+            sousTotal += item.getTotalPrice();
+            items.add(item);
+        }
+        invoice.setItems(items);
+        invoice.setSubTotal(sousTotal);
+        invoice.setTaxRate(20.0);
+        invoice.setTaxAmount(sousTotal * 0.2);
+        invoice.setTotalAmount(sousTotal * 1.2);
+        return invoice;
+    }
+}
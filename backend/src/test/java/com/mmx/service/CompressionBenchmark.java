@@ -0,0 +1,86 @@
+package com.mmx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmx.dto.VehiculeDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Octets transmis et temps CPU de la compression gzip d'une réponse JSON, selon sa taille
+ * (de quelques véhicules au catalogue complet) : justifie le seuil server.compression.min-response-size.
+ * Tomcat compresse au niveau par défaut de Deflater (6) ; les niveaux 1 et 9 sont donnés pour comparaison.
+ * Exécution : java -cp target/classes:target/test-classes:<dépendances> com.mmx.service.CompressionBenchmark
+ */
+public class CompressionBenchmark {
+
+    private static final int[] NIVEAUX = {Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION};
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        System.out.println("=== BENCHMARK COMPRESSION DES RÉPONSES ===\n");
+        for (int vehicules : new int[] {2, 10, 300, 10_000}) {
+            byte[] json = mapper.writeValueAsBytes(catalogue(vehicules));
+            // Nombre d'itérations ajusté pour compresser ~200 Mo par mesure
+            int iterations = Math.max(20, 200_000_000 / json.length);
+            System.out.printf("%d véhicules : %d octets de JSON%n", vehicules, json.length);
+            for (int niveau : NIVEAUX) {
+                mesurer(json, niveau, iterations);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void mesurer(byte[] json, int niveau, int iterations) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Préchauffage JIT
+        int taille = 0;
+        for (int i = 0; i < iterations / 4; i++) {
+            taille = gzip(json, niveau).length;
+        }
+
+        long cpuDebut = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            taille = gzip(json, niveau).length;
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuDebut;
+
+        System.out.printf("  gzip %-2s : %8d octets (%5.1f %%), %9.1f µs CPU / réponse%n",
+            niveau == Deflater.DEFAULT_COMPRESSION ? "6" : Integer.toString(niveau),
+            taille, 100.0 * taille / json.length, cpu / 1000.0 / iterations);
+    }
+
+    private static byte[] gzip(byte[] contenu, int niveau) throws IOException {
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(contenu.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(tampon) {
+            {
+                def.setLevel(niveau);
+            }
+        }) {
+            out.write(contenu);
+        }
+        return tampon.toByteArray();
+    }
+
+    private static List<VehiculeDTO> catalogue(int taille) {
+        String[][] modeles = {
+            {"Tesla", "Model 3", "ELECTRIQUE", "AUTOMOBILE"}, {"Renault", "Zoé", "ELECTRIQUE", "AUTOMOBILE"},
+            {"Peugeot", "208", "ESSENCE", "AUTOMOBILE"}, {"Yamaha", "NMAX", "ESSENCE", "SCOOTER"}
+        };
+        List<VehiculeDTO> catalogue = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            String[] m = modeles[i % modeles.length];
+            VehiculeDTO vehicule = new VehiculeDTO((long) i + 1, m[1], m[0], 20000 + i * 37.5, i % 13, m[2],
+                m[0] + " " + m[1] + " - " + m[2], m[3]);
+            vehicule.setImageUrl("/api/images/vehicules/" + (i + 1) + "/thumbnail");
+            catalogue.add(vehicule);
+        }
+        return catalogue;
+    }
+}
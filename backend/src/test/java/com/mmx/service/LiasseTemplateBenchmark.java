@@ -0,0 +1,136 @@
+package com.mmx.service;
+
+import com.mmx.builder.DocumentBuilder;
+import com.mmx.builder.LiasseDocument;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compare la construction des liasses par gabarits compilés à l'ancienne concaténation
+ * (temps et octets alloués par liasse, sur un thread).
+ * Exécution : java -cp target/classes:target/test-classes com.mmx.service.LiasseTemplateBenchmark [iterations]
+ */
+public class LiasseTemplateBenchmark {
+
+    private static final String[] OPTIONS = {"GPS", "Toit ouvrant", "Sièges chauffants", "Jantes alliage 18\""};
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        LiasseService service = new LiasseService(null);
+
+        // Les deux versions doivent produire le même texte (hors date, qui change à chaque appel)
+        LiasseDocument attendue = ancienneLiasse(42L, "Jean Dupont", "Tesla Model 3", 45990.5, OPTIONS, "pdf");
+        LiasseDocument obtenue = silencieux(() -> service.construireLiasse(42L, "Jean Dupont", "Tesla Model 3", 45990.5, OPTIONS, "pdf"));
+        if (!sansDate(attendue.getBonCommande()).equals(sansDate(obtenue.getBonCommande()))
+                || !sansDate(attendue.getCertificatCession()).equals(sansDate(obtenue.getCertificatCession()))
+                || !sansDate(attendue.getDemandeImmatriculation()).equals(sansDate(obtenue.getDemandeImmatriculation()))) {
+            throw new IllegalStateException("Les gabarits ne reproduisent pas les documents d'origine");
+        }
+
+        System.out.println("=== BENCHMARK GABARITS DE LIASSE ===\n");
+        mesurer("Concaténation", iterations,
+            () -> ancienneLiasse(42L, "Jean Dupont", "Tesla Model 3", 45990.5, OPTIONS, "pdf"));
+        mesurer("Gabarits compilés", iterations,
+            () -> silencieux(() -> service.construireLiasse(42L, "Jean Dupont", "Tesla Model 3", 45990.5, OPTIONS, "pdf")));
+    }
+
+    private static void mesurer(String nom, int iterations, Runnable liasse) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // Préchauffage JIT
+        for (int i = 0; i < iterations / 4; i++) {
+            liasse.run();
+        }
+
+        long octetsDebut = threads.getThreadAllocatedBytes(thread);
+        long debut = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            liasse.run();
+        }
+        long duree = System.nanoTime() - debut;
+        long octets = threads.getThreadAllocatedBytes(thread) - octetsDebut;
+
+        System.out.printf("%-18s : %6.2f µs / liasse, %6d octets alloués / liasse%n",
+            nom, duree / 1000.0 / iterations, octets / iterations);
+    }
+
+    private static final PrintStream SORTIE = System.out;
+    private static final PrintStream NUL = new PrintStream(OutputStream.nullOutputStream());
+
+    // Le service trace chaque génération sur la sortie standard : on la coupe pendant la mesure
+    private static <T> T silencieux(java.util.function.Supplier<T> action) {
+        System.setOut(NUL);
+        try {
+            return action.get();
+        } finally {
+            System.setOut(SORTIE);
+        }
+    }
+
+    private static String sansDate(String document) {
+        return document.replaceAll("(Date[^:\n]*: ).*", "$1");
+    }
+
+    /** Implémentation d'origine, conservée comme référence. */
+    private static LiasseDocument ancienneLiasse(Long orderId, String clientName, String vehicleModel,
+                                                 double price, String[] options, String format) {
+        DocumentBuilder builder = new DocumentBuilder();
+        builder.setDemandeImmatriculation(
+            "=== DEMANDE D'IMMATRICULATION ===\n" +
+            "Numéro de commande: CMD-" + orderId + "\n" +
+            "Nom du client: " + clientName + "\n" +
+            "Modèle du véhicule: " + vehicleModel + "\n" +
+            "Type de véhicule: Voiture particulière\n" +
+            "Date de la demande: " + new java.util.Date() + "\n" +
+            "Signature du client: ________________\n" +
+            "Cachet de l'administration: [À APPOSER]"
+        );
+        builder.setCertificatCession(
+            "=== CERTIFICAT DE CESSION ===\n" +
+            "Je soussigné(e), MMX Véhicules,\n" +
+            "cède à " + clientName + "\n" +
+            "le véhicule suivant: " + vehicleModel + "\n" +
+            "pour le prix de: " + String.format("%.2f", price) + " €\n" +
+            "Options incluses: " + (options != null ? String.join(", ", options) : "Aucune") + "\n" +
+            "Date de cession: " + new java.util.Date() + "\n" +
+            "Lieu: Siège social MMX Véhicules\n" +
+            "Signature du vendeur: ________________\n" +
+            "Signature de l'acheteur: ________________"
+        );
+        builder.setBonCommande(
+            "=== BON DE COMMANDE ===\n" +
+            "Référence: CMD-" + orderId + "\n" +
+            "Date: " + new java.util.Date() + "\n" +
+            "\n" +
+            "CLIENT:\n" +
+            "Nom: " + clientName + "\n" +
+            "\n" +
+            "VÉHICULE COMMANDÉ:\n" +
+            "Modèle: " + vehicleModel + "\n" +
+            "Prix de base: " + String.format("%.2f", price) + " €\n" +
+            "\n" +
+            "OPTIONS:\n" +
+            (options != null && options.length > 0 ?
+                String.join("\n", java.util.Arrays.stream(options)
+                    .map(opt -> "  • " + opt)
+                    .toArray(String[]::new)) :
+                "  • Aucune option") + "\n" +
+            "\n" +
+            "MONTANT TOTAL: " + String.format("%.2f", price) + " €\n" +
+            "\n" +
+            "CONDITIONS:\n" +
+            "  • Paiement à la livraison\n" +
+            "  • Livraison sous 15 jours ouvrables\n" +
+            "  *Garantie: 24 mois\n" +
+            "\n" +
+            "STATUT: COMMANDE CONFIRMÉE\n" +
+            "\n" +
+            "Signature: ________________"
+        );
+        builder.setFormat(format);
+        return builder.build();
+    }
+}
@@ -26,11 +26,14 @@ CREATE TABLE IF NOT EXISTS clients (
     email VARCHAR(100) UNIQUE NOT NULL,
     telephone VARCHAR(20),
     type_client VARCHAR(20) DEFAULT 'PARTICULIER',
+    secteur_activite VARCHAR(50) NULL,
+    nombre_employes INT DEFAULT 0,
     societe_mere_id BIGINT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (societe_mere_id) REFERENCES clients(id),
     INDEX idx_email (email),
-    INDEX idx_type (type_client)
+    INDEX idx_type (type_client),
+    INDEX idx_societe_mere (societe_mere_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Table des commandes
@@ -52,16 +55,40 @@ CREATE TABLE IF NOT EXISTS commandes (
     INDEX idx_date_cmd (date_commande)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Contenus des documents, dédupliqués par empreinte SHA-256 et découpés en blocs
+-- (lecture et écriture en flux, sans charger un document entier en mémoire)
+CREATE TABLE IF NOT EXISTS document_contenus (
+    empreinte CHAR(64) PRIMARY KEY,
+    taille BIGINT NOT NULL,
+    type_mime VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS document_blocs (
+    empreinte CHAR(64) NOT NULL,
+    numero INT NOT NULL,
+    donnees MEDIUMBLOB NOT NULL,
+    PRIMARY KEY (empreinte, numero),
+    FOREIGN KEY (empreinte) REFERENCES document_contenus(empreinte) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- Table des documents
 CREATE TABLE IF NOT EXISTS documents (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
-    commande_id BIGINT NOT NULL,
+    commande_id BIGINT NULL,
+    commande_reference VARCHAR(50),
     type_document VARCHAR(50) NOT NULL,
     format VARCHAR(10) DEFAULT 'PDF',
-    contenu LONGTEXT,
+    nom_fichier VARCHAR(255),
+    empreinte CHAR(64) NOT NULL,
+    taille BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (commande_id) REFERENCES commandes(id),
+    FOREIGN KEY (empreinte) REFERENCES document_contenus(empreinte),
+    -- Un même contenu n'est enregistré qu'une fois par commande et par type de document
+    UNIQUE KEY uk_document_contenu (commande_reference, type_document, empreinte),
     INDEX idx_commande (commande_id),
+    INDEX idx_commande_reference (commande_reference),
     INDEX idx_type (type_document)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -105,6 +132,18 @@ INSERT INTO clients (nom, email, telephone, type_client) VALUES
 ('Auto Services', 'info@autoservices.fr', '0123456789', 'SOCIETE'),
 ('Durand Pierre', 'pierre.durand@email.com', '0634567890', 'PARTICULIER');
 
+-- Hiérarchie société mère / filiales (Composite)
+INSERT INTO clients (nom, email, telephone, type_client, secteur_activite, nombre_employes, societe_mere_id) VALUES
+('Groupe Automobile France', 'contact@groupe-auto.fr', '0140000000', 'SOCIETE', 'Holding', 1200, NULL);
+SET @groupe_id = LAST_INSERT_ID();
+INSERT INTO clients (nom, email, telephone, type_client, secteur_activite, nombre_employes, societe_mere_id) VALUES
+('Auto Distribution SA', 'contact@autodistribution.fr', '0472000000', 'SOCIETE', 'Distribution', 350, @groupe_id);
+SET @distribution_id = LAST_INSERT_ID();
+INSERT INTO clients (nom, email, telephone, type_client, secteur_activite, nombre_employes, societe_mere_id) VALUES
+('Fleet Solutions SARL', 'contact@fleetsolutions.fr', '0491000000', 'SOCIETE', 'Location', 120, @groupe_id),
+('Concession Paris Nord', 'parisnord@autodistribution.fr', '0142000000', 'SOCIETE', 'Concession', 45, @distribution_id),
+('Concession Lyon Sud', 'lyonsud@autodistribution.fr', '0478000000', 'SOCIETE', 'Concession', 38, @distribution_id);
+
 -- Insertion de données de test pour les commandes
 INSERT INTO commandes (type_commande, client_id, vehicule_id, montant, etat, date_commande) VALUES
 ('COMPTANT', 1, 1, 18500.00, 'VALIDE', '2025-01-10'),
@@ -0,0 +1,257 @@
+package com.vehicles.client;
+
+import java.util.*;
+
+/**
+ * Représentation aplatie de la hiérarchie des clients (Composite).
+ *
+ * Chaque client reçoit un indice dense dans l'ordre préfixe du parcours ;
+ * un sous-arbre occupe donc l'intervalle [entree, sortie] de cet ordre
+ * (intervalles imbriqués). Les requêtes d'appartenance à un sous-arbre et
+ * d'ancêtre sont en O(1), les listes par pays / type d'activité en O(résultat).
+ *
+ * L'index est immuable : il reflète la hiérarchie au moment de sa construction.
+ */
+public final class ClientHierarchyIndex {
+    private static final int NO_PARENT = -1;
+
+    private final ClientComponent[] nodes;   // indice préfixe -> client
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] exit;                // dernier indice préfixe du sous-arbre
+    private final Map<String, Integer> indexById;
+    private final Map<String, int[]> companiesByCountry;
+    private final Map<String, int[]> clientsByBusinessType;
+    private final int[] roots;
+
+    private ClientHierarchyIndex(List<ClientComponent> preorder, int[] parent, int[] depth,
+                                 int[] exit, int[] roots) {
+        int n = preorder.size();
+        this.nodes = preorder.toArray(new ClientComponent[n]);
+        this.parent = parent;
+        this.depth = depth;
+        this.exit = exit;
+        this.roots = roots;
+        this.indexById = new HashMap<>(n * 2);
+
+        Map<String, IntList> byCountry = new HashMap<>();
+        Map<String, IntList> byType = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ClientComponent client = nodes[i];
+            indexById.put(client.getId(), i);
+            if (client instanceof CorporateClient) {
+                byCountry.computeIfAbsent(client.getCountry(), k -> new IntList()).add(i);
+            }
+            byType.computeIfAbsent(client.getType(), k -> new IntList()).add(i);
+        }
+        this.companiesByCountry = freeze(byCountry);
+        this.clientsByBusinessType = freeze(byType);
+    }
+
+    /**
+     * Construit l'index à partir de l'ensemble des clients connus.
+     * Les racines sont les clients qui ne sont la filiale d'aucun autre.
+     * Le parcours est itératif : la profondeur des groupes n'est pas limitée par la pile.
+     */
+    public static ClientHierarchyIndex build(Collection<ClientComponent> clients) {
+        Set<String> subsidiaryIds = new HashSet<>();
+        for (ClientComponent client : clients) {
+            for (ClientComponent sub : client.getSubsidiaries()) {
+                subsidiaryIds.add(sub.getId());
+            }
+        }
+
+        List<ClientComponent> preorder = new ArrayList<>(clients.size());
+        IntList parents = new IntList();
+        IntList depths = new IntList();
+        IntList rootList = new IntList();
+        Set<String> visited = new HashSet<>();
+
+        Deque<ClientComponent> stack = new ArrayDeque<>();
+        Deque<int[]> frames = new ArrayDeque<>(); // {indice du parent, profondeur}
+        for (ClientComponent client : clients) {
+            if (subsidiaryIds.contains(client.getId())) {
+                continue;
+            }
+            stack.push(client);
+            frames.push(new int[] {NO_PARENT, 0});
+            while (!stack.isEmpty()) {
+                ClientComponent current = stack.pop();
+                int[] frame = frames.pop();
+                if (!visited.add(current.getId())) {
+                    continue; // filiale déjà rattachée à un autre parent
+                }
+                int index = preorder.size();
+                preorder.add(current);
+                parents.add(frame[0]);
+                depths.add(frame[1]);
+                if (frame[0] == NO_PARENT) {
+                    rootList.add(index);
+                }
+                List<ClientComponent> subs = current.getSubsidiaries();
+                for (int i = subs.size() - 1; i >= 0; i--) {
+                    stack.push(subs.get(i));
+                    frames.push(new int[] {index, frame[1] + 1});
+                }
+            }
+        }
+
+        // En ordre préfixe, un nœud précède tous ses descendants :
+        // un balayage à rebours propage la borne de sortie vers les parents.
+        int n = preorder.size();
+        int[] parent = parents.toArray();
+        int[] exit = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            exit[i] = Math.max(exit[i], i);
+            if (parent[i] != NO_PARENT) {
+                exit[parent[i]] = Math.max(exit[parent[i]], exit[i]);
+            }
+        }
+        return new ClientHierarchyIndex(preorder, parent, depths.toArray(), exit, rootList.toArray());
+    }
+
+    // =========================================
+    // REQUÊTES
+    // =========================================
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public boolean contains(String clientId) {
+        return indexById.containsKey(clientId);
+    }
+
+    public ClientComponent getClient(String clientId) {
+        Integer index = indexById.get(clientId);
+        return index == null ? null : nodes[index];
+    }
+
+    /** Vrai si {@code ancestorId} est un ancêtre strict de {@code clientId}. */
+    public boolean isAncestor(String ancestorId, String clientId) {
+        Integer a = indexById.get(ancestorId);
+        Integer c = indexById.get(clientId);
+        return a != null && c != null && a < c && c <= exit[a];
+    }
+
+    /** Vrai si {@code clientId} appartient au sous-arbre de {@code rootId} (racine incluse). */
+    public boolean isInSubtree(String rootId, String clientId) {
+        return rootId.equals(clientId) ? contains(rootId) : isAncestor(rootId, clientId);
+    }
+
+    public ClientComponent getParent(String clientId) {
+        Integer index = indexById.get(clientId);
+        if (index == null || parent[index] == NO_PARENT) {
+            return null;
+        }
+        return nodes[parent[index]];
+    }
+
+    public ClientComponent getRoot(String clientId) {
+        Integer index = indexById.get(clientId);
+        if (index == null) {
+            return null;
+        }
+        int current = index;
+        while (parent[current] != NO_PARENT) {
+            current = parent[current];
+        }
+        return nodes[current];
+    }
+
+    /** Niveau dans la hiérarchie (0 pour un groupe racine). */
+    public int getDepth(String clientId) {
+        Integer index = indexById.get(clientId);
+        return index == null ? -1 : depth[index];
+    }
+
+    /** Nombre total de filiales, directes et indirectes, en O(1). */
+    public int countDescendants(String clientId) {
+        Integer index = indexById.get(clientId);
+        return index == null ? 0 : exit[index] - index;
+    }
+
+    /** Filiales directes et indirectes, dans l'ordre du parcours préfixe. */
+    public List<ClientComponent> getDescendants(String clientId) {
+        Integer index = indexById.get(clientId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(nodes).subList(index + 1, exit[index] + 1));
+    }
+
+    /** Chaîne des ancêtres, du parent direct jusqu'au groupe racine. */
+    public List<ClientComponent> getAncestors(String clientId) {
+        Integer index = indexById.get(clientId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<ClientComponent> ancestors = new ArrayList<>(depth[index]);
+        for (int p = parent[index]; p != NO_PARENT; p = parent[p]) {
+            ancestors.add(nodes[p]);
+        }
+        return ancestors;
+    }
+
+    public List<ClientComponent> getRoots() {
+        return toClients(roots);
+    }
+
+    public List<CorporateClient> getCompaniesByCountry(String country) {
+        int[] indexes = companiesByCountry.get(country);
+        if (indexes == null) {
+            return new ArrayList<>();
+        }
+        List<CorporateClient> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add((CorporateClient) nodes[index]);
+        }
+        return result;
+    }
+
+    public int countCompaniesByCountry(String country) {
+        int[] indexes = companiesByCountry.get(country);
+        return indexes == null ? 0 : indexes.length;
+    }
+
+    public Set<String> getCountries() {
+        return companiesByCountry.keySet();
+    }
+
+    /** Clients d'un type donné (HOLDING, DISTRIBUTION, CONCESSION, LOCATION, INDIVIDUAL...). */
+    public List<ClientComponent> getClientsByBusinessType(String businessType) {
+        int[] indexes = clientsByBusinessType.get(businessType);
+        return indexes == null ? new ArrayList<>() : toClients(indexes);
+    }
+
+    private List<ClientComponent> toClients(int[] indexes) {
+        List<ClientComponent> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(nodes[index]);
+        }
+        return result;
+    }
+
+    private static Map<String, int[]> freeze(Map<String, IntList> lists) {
+        Map<String, int[]> frozen = new HashMap<>(lists.size() * 2);
+        lists.forEach((key, list) -> frozen.put(key, list.toArray()));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /** Liste d'entiers primitifs extensible (évite le boxing pendant la construction). */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -7,8 +7,18 @@ import java.util.*;
  * Pattern Composite pour la gestion société/filiales
  */
 public class ClientService {
+    private static final Set<String> AFRICAN_COUNTRIES = new HashSet<>(Arrays.asList(
+        "Cameroun", "Sénégal", "Côte d'Ivoire", "Gabon",
+        "Maroc", "Tunisie", "Algérie", "Mali", 
+        "Burkina Faso", "Bénin", "Togo", "Ghana",
+        "Nigeria", "Congo", "RDC", "Rwanda"
+    ));
+    
     private Map<String, ClientComponent> clients;
     
+    // Index aplati de la hiérarchie, reconstruit à la demande après modification
+    private volatile ClientHierarchyIndex hierarchyIndex;
+    
     public ClientService() {
         this.clients = new HashMap<>();
         initializeMultinationalClients();
@@ -305,6 +315,29 @@ public class ClientService {
     
     public void addClient(ClientComponent client) {
         clients.put(client.getId(), client);
+        hierarchyIndex = null;
+    }
+    
+    /**
+     * Force la reconstruction de l'index après une modification directe
+     * des filiales (addSubsidiary / removeSubsidiary) d'un client déjà enregistré.
+     */
+    public void refreshHierarchyIndex() {
+        hierarchyIndex = null;
+    }
+    
+    public ClientHierarchyIndex getHierarchyIndex() {
+        ClientHierarchyIndex index = hierarchyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = hierarchyIndex;
+                if (index == null) {
+                    index = ClientHierarchyIndex.build(clients.values());
+                    hierarchyIndex = index;
+                }
+            }
+        }
+        return index;
     }
     
     public ClientComponent getClient(String id) {
@@ -326,52 +359,35 @@ public class ClientService {
     }
     
     public List<CorporateClient> getFrenchCompanies() {
-        List<CorporateClient> frenchCorps = new ArrayList<>();
-        for (ClientComponent client : clients.values()) {
-            if (client instanceof CorporateClient) {
-                CorporateClient corp = (CorporateClient) client;
-                if ("France".equals(corp.getCountry())) {
-                    frenchCorps.add(corp);
-                }
-            }
-        }
-        return frenchCorps;
+        return getHierarchyIndex().getCompaniesByCountry("France");
     }
     
     public List<CorporateClient> getAfricanCompanies() {
+        ClientHierarchyIndex index = getHierarchyIndex();
         List<CorporateClient> africanCorps = new ArrayList<>();
-        for (ClientComponent client : clients.values()) {
-            if (client instanceof CorporateClient) {
-                CorporateClient corp = (CorporateClient) client;
-                if (isAfricanCountry(corp.getCountry())) {
-                    africanCorps.add(corp);
-                }
+        for (String country : index.getCountries()) {
+            if (isAfricanCountry(country)) {
+                africanCorps.addAll(index.getCompaniesByCountry(country));
             }
         }
         return africanCorps;
     }
     
     public List<CorporateClient> getCameroonCompanies() {
-        List<CorporateClient> cameroonCorps = new ArrayList<>();
-        for (ClientComponent client : clients.values()) {
-            if (client instanceof CorporateClient) {
-                CorporateClient corp = (CorporateClient) client;
-                if ("Cameroun".equals(corp.getCountry())) {
-                    cameroonCorps.add(corp);
-                }
-            }
-        }
-        return cameroonCorps;
+        return getHierarchyIndex().getCompaniesByCountry("Cameroun");
+    }
+    
+    public List<ClientComponent> getClientsByBusinessType(String businessType) {
+        return getHierarchyIndex().getClientsByBusinessType(businessType);
+    }
+    
+    /** Vrai si le client appartient (directement ou non) au groupe indiqué. */
+    public boolean isSubsidiaryOf(String clientId, String groupId) {
+        return getHierarchyIndex().isAncestor(groupId, clientId);
     }
     
     private boolean isAfricanCountry(String country) {
-        String[] africanCountries = {
-            "Cameroun", "Sénégal", "Côte d'Ivoire", "Gabon",
-            "Maroc", "Tunisie", "Algérie", "Mali", 
-            "Burkina Faso", "Bénin", "Togo", "Ghana",
-            "Nigeria", "Congo", "RDC", "Rwanda"
-        };
-        return Arrays.asList(africanCountries).contains(country);
+        return AFRICAN_COUNTRIES.contains(country);
     }
     
     public Map<String, Object> proposeFleetToGroup(String groupId, int numberOfVehicles) {
@@ -393,22 +409,15 @@ public class ClientService {
         // Calcul de la remise
         double discount = group.calculateFleetDiscount();
         List<Map<String, Object>> proposals = new ArrayList<>();
+        ClientHierarchyIndex index = getHierarchyIndex();
+        
+        // Répartition exacte : le groupe et chaque branche reçoivent une part
+        // proportionnelle à leur nombre d'entités (plus fort reste)
+        distributeFleetProposal(group, numberOfVehicles, discount, proposals, 0, null, index);
         
-        // Proposition au groupe principal
-        Map<String, Object> mainProposal = new HashMap<>();
-        mainProposal.put("clientId", group.getId());
-        mainProposal.put("clientName", group.getName());
-        mainProposal.put("country", group.getCountry());
-        mainProposal.put("city", group.getCity());
-        mainProposal.put("vehicles", numberOfVehicles);
-        mainProposal.put("discount", discount);
-        mainProposal.put("type", "GROUPE PRINCIPAL");
-        proposals.add(mainProposal);
-        
-        // Propositions aux filiales
-        if (group instanceof CorporateClient) {
-            distributeFleetProposal((CorporateClient) group, numberOfVehicles, 
-                                  discount, proposals, 1);
+        int allocated = 0;
+        for (Map<String, Object> proposal : proposals) {
+            allocated += (int) proposal.get("vehicles");
         }
         
         response.put("success", true);
@@ -416,6 +425,7 @@ public class ClientService {
         response.put("groupName", group.getName());
         response.put("country", group.getCountry());
         response.put("totalVehicles", numberOfVehicles);
+        response.put("allocatedVehicles", allocated);
         response.put("baseDiscount", discount);
         response.put("proposals", proposals);
         response.put("totalProposals", proposals.size());
@@ -424,34 +434,40 @@ public class ClientService {
         return response;
     }
     
-    private void distributeFleetProposal(CorporateClient parent, int vehicles, 
-                                        double discount, List<Map<String, Object>> proposals, int level) {
-        List<ClientComponent> subsidiaries = parent.getSubsidiaries();
-        if (subsidiaries.isEmpty()) return;
-        
-        // Calcul du nombre de véhicules par filiale
-        int vehiclesPerSubsidiary = Math.max(1, vehicles / (subsidiaries.size() + 1));
-        
-        for (ClientComponent sub : subsidiaries) {
-            double subDiscount = discount * (1.0 - (level * 0.1));
-            subDiscount = Math.max(subDiscount, 5.0); // Minimum 5%
-            
-            Map<String, Object> proposal = new HashMap<>();
-            proposal.put("clientId", sub.getId());
-            proposal.put("clientName", sub.getName());
-            proposal.put("country", sub.getCountry());
-            proposal.put("city", getCity(sub));
-            proposal.put("vehicles", vehiclesPerSubsidiary);
-            proposal.put("discount", subDiscount);
+    private void distributeFleetProposal(ClientComponent client, int branchVehicles, double discount,
+                                        List<Map<String, Object>> proposals, int level,
+                                        ClientComponent parent, ClientHierarchyIndex index) {
+        List<ClientComponent> subsidiaries = client.getSubsidiaries();
+        
+        // Poids : 1 pour la société elle-même, taille de la branche pour chaque filiale
+        long[] weights = new long[subsidiaries.size() + 1];
+        weights[0] = 1;
+        for (int i = 0; i < subsidiaries.size(); i++) {
+            weights[i + 1] = 1 + index.countDescendants(subsidiaries.get(i).getId());
+        }
+        int[] shares = FleetAllocator.allocate(branchVehicles, weights);
+        
+        Map<String, Object> proposal = new HashMap<>();
+        proposal.put("clientId", client.getId());
+        proposal.put("clientName", client.getName());
+        proposal.put("country", client.getCountry());
+        proposal.put("city", getCity(client));
+        proposal.put("vehicles", shares[0]);
+        proposal.put("branchVehicles", branchVehicles);
+        proposal.put("discount", discount);
+        if (parent == null) {
+            proposal.put("type", "GROUPE PRINCIPAL");
+        } else {
             proposal.put("type", "FILIALE Niveau " + level);
             proposal.put("parent", parent.getName());
-            proposals.add(proposal);
-            
-            // Propagation aux sous-filiales
-            if (sub instanceof CorporateClient) {
-                distributeFleetProposal((CorporateClient) sub, vehiclesPerSubsidiary, 
-                                      subDiscount, proposals, level + 1);
-            }
+        }
+        proposals.add(proposal);
+        
+        for (int i = 0; i < subsidiaries.size(); i++) {
+            double subDiscount = discount * (1.0 - ((level + 1) * 0.1));
+            subDiscount = Math.max(subDiscount, 5.0); // Minimum 5%
+            distributeFleetProposal(subsidiaries.get(i), shares[i + 1], subDiscount,
+                                    proposals, level + 1, client, index);
         }
     }
     
@@ -473,11 +489,16 @@ public class ClientService {
             return result;
         }
         
+        ClientHierarchyIndex index = getHierarchyIndex();
+        ClientComponent parent = index.getParent(clientId);
+        
         result.put("id", client.getId());
         result.put("name", client.getName());
         result.put("type", client.getType());
         result.put("country", client.getCountry());
         result.put("city", getCity(client));
+        result.put("level", index.getDepth(clientId));
+        result.put("parentId", parent != null ? parent.getId() : null);
         result.put("hierarchy", client.getHierarchyInfo());
         result.put("eligibleForFleet", client.isEligibleForFleetPurchase());
         result.put("fleetDiscount", client.calculateFleetDiscount());
@@ -486,7 +507,7 @@ public class ClientService {
             CorporateClient corp = (CorporateClient) client;
             result.put("siret", corp.getSiret());
             result.put("subsidiariesCount", corp.getSubsidiaries().size());
-            result.put("totalSubsidiaries", corp.getTotalSubsidiariesCount());
+            result.put("totalSubsidiaries", index.countDescendants(clientId));
             
             // Détail des filiales
             List<Map<String, Object>> subsDetails = new ArrayList<>();
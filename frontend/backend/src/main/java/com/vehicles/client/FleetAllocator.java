@@ -0,0 +1,55 @@
+package com.vehicles.client;
+
+import java.util.Arrays;
+
+/**
+ * Répartition exacte d'une flotte (méthode du plus fort reste) :
+ * aucune perte ni création de véhicule, contrairement à un simple Math.round.
+ */
+public final class FleetAllocator {
+    
+    private FleetAllocator() {
+    }
+    
+    public static int[] allocate(int total, long[] weights) {
+        if (total < 0) {
+            throw new IllegalArgumentException("❌ Nombre de véhicules négatif : " + total);
+        }
+        int n = weights.length;
+        int[] shares = new int[n];
+        if (n == 0) {
+            return shares;
+        }
+        
+        long sum = 0;
+        for (long w : weights) {
+            sum += w;
+        }
+        long[] effective = weights;
+        if (sum <= 0) {
+            effective = new long[n];
+            Arrays.fill(effective, 1L);
+            sum = n;
+        }
+        
+        long[] remainders = new long[n];
+        int allocated = 0;
+        for (int i = 0; i < n; i++) {
+            long product = (long) total * effective[i];
+            shares[i] = (int) (product / sum);
+            remainders[i] = product % sum;
+            allocated += shares[i];
+        }
+        
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        long[] r = remainders;
+        Arrays.sort(order, (a, b) -> r[a] != r[b] ? Long.compare(r[b], r[a]) : Integer.compare(a, b));
+        for (int k = 0; k < total - allocated; k++) {
+            shares[order[k]]++;
+        }
+        return shares;
+    }
+}
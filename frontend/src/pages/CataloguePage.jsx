@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { vehiculeService } from '../services/api';
+import { vehiculeService, evenementService } from '../services/api';
 import { Search, Filter, Plus, Trash2, Edit, Eye } from 'lucide-react';
 
 const CataloguePage = () => {
@@ -13,6 +13,22 @@ const CataloguePage = () => {
     fetchVehicules();
   }, []);
 
+  // Stock en temps réel : chaque delta remplace les champs de la ligne concernée,
+  // un nouveau véhicule ou un 'resync' recharge la liste
+  useEffect(() => {
+    return evenementService.subscribe(['stock'], (type, data) => {
+      if (type !== 'vehicule-updated') {
+        vehiculeService.getAllVehicules()
+          .then((response) => setVehicules(response.data))
+          .catch((error) => console.error('Erreur lors du rechargement des véhicules:', error));
+        return;
+      }
+      setVehicules((courants) => courants.map((v) => (v.id === data.id
+        ? { ...v, marque: data.marque, modele: data.modele, prix: data.prix, stock: data.stock }
+        : v)));
+    });
+  }, []);
+
   const fetchVehicules = async () => {
     try {
       setLoading(true);
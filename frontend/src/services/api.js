@@ -36,6 +36,21 @@ export const clientService = {
   getClientSocietes: () => api.get('/clients/societes'),
 };
 
+// Événements temps réel (SSE) : remplace le rechargement périodique des commandes et du stock.
+// onEvent(type, data) reçoit chaque delta ; 'resync' signale qu'il faut recharger la liste.
+// EventSource se reconnecte seul et renvoie Last-Event-ID pour rejouer les événements manqués.
+const EVENT_TYPES = ['order-created', 'order-status', 'vehicule-created', 'vehicule-updated', 'resync'];
+
+export const evenementService = {
+  subscribe: (topics, onEvent) => {
+    const source = new EventSource(`${API_BASE_URL}/events?topics=${topics.join(',')}`);
+    EVENT_TYPES.forEach((type) => {
+      source.addEventListener(type, (event) => onEvent(type, JSON.parse(event.data)));
+    });
+    return () => source.close();
+  },
+};
+
 // Intercepteur pour ajouter le token
 api.interceptors.request.use(
   (config) => {
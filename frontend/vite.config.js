@@ -1,8 +1,35 @@
 import { defineConfig } from 'vite'
 import react from '@vitejs/plugin-react'
+import { readFileSync, writeFileSync } from 'node:fs'
+import { join } from 'node:path'
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib'
+
+// Variantes .br et .gz écrites à côté de chaque fichier texte du build (compression maximale, une seule fois) :
+// le backend les sert telles quelles selon Accept-Encoding, sans compresser à chaque requête
+const COMPRESSIBLES = /\.(js|css|html|svg|json)$/
+const TAILLE_MIN = 1024
+
+function precompression() {
+  return {
+    name: 'mmx-precompression',
+    apply: 'build',
+    writeBundle(options, bundle) {
+      for (const fichier of Object.keys(bundle)) {
+        if (!COMPRESSIBLES.test(fichier)) continue
+        const chemin = join(options.dir, fichier)
+        const contenu = readFileSync(chemin)
+        if (contenu.length < TAILLE_MIN) continue
+        writeFileSync(chemin + '.gz', gzipSync(contenu, { level: 9 }))
+        writeFileSync(chemin + '.br', brotliCompressSync(contenu, {
+          params: { [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY }
+        }))
+      }
+    }
+  }
+}
 
 export default defineConfig({
-  plugins: [react()],
+  plugins: [react(), precompression()],
   server: {
     port: 3000,
     proxy: {
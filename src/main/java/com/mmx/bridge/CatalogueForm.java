@@ -0,0 +1,34 @@
+package com.mmx.bridge;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+
+class CatalogueForm extends Form {
+    public CatalogueForm(FormRenderer renderer) {
+        super(renderer);
+    }
+    
+    @Override
+    public String render() {
+        StringWriter sortie = new StringWriter();
+        try {
+            compiler().ecrire(Collections.emptyIterator(), sortie);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sortie.toString();
+    }
+    
+    @Override
+    public PlanFormulaire compiler() {
+        return new PlanFormulaire(renderer,
+            renderer.renderForm()
+                + renderer.renderTitle("Catalogue des véhicules")
+                + renderer.renderListStart(),
+            renderer.renderListItem("${marque} ${modele} (${type}) - ${prix} € - stock: ${stock}"),
+            renderer.renderListEnd()
+                + renderer.renderFormEnd());
+    }
+}
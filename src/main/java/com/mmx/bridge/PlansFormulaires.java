@@ -0,0 +1,66 @@
+package com.mmx.bridge;
+
+import com.mmx.model.Vehicule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rendu côté serveur des formulaires de catalogue et de commande pour les bornes.
+ * Les plans sont compilés une fois par couple (formulaire, renderer) au chargement de la classe,
+ * puis partagés : les renderers sont sans état et les plans immuables.
+ */
+public final class PlansFormulaires {
+
+    public enum Rendu {
+        HTML(new HtmlFormRenderer()),
+        WIDGET(new WidgetFormRenderer());
+
+        private final FormRenderer renderer;
+
+        Rendu(FormRenderer renderer) {
+            this.renderer = renderer;
+        }
+
+        /** @throws IllegalArgumentException si le rendu est inconnu */
+        public static Rendu depuis(String nom) {
+            try {
+                return valueOf(nom.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Rendu inconnu: " + nom);
+            }
+        }
+
+        public String getContentType() {
+            return renderer.contentType();
+        }
+    }
+
+    private static final Map<Rendu, PlanFormulaire> CATALOGUE = new EnumMap<>(Rendu.class);
+    private static final Map<Rendu, PlanFormulaire> COMMANDE = new EnumMap<>(Rendu.class);
+
+    static {
+        for (Rendu rendu : Rendu.values()) {
+            CATALOGUE.put(rendu, new CatalogueForm(rendu.renderer).compiler());
+            COMMANDE.put(rendu, new CommandeForm(rendu.renderer).compiler());
+        }
+    }
+
+    private PlansFormulaires() {
+    }
+
+    public static void ecrireCatalogue(Rendu rendu, Iterator<? extends Vehicule> vehicules, Writer sortie)
+            throws IOException {
+        CATALOGUE.get(rendu).ecrire(vehicules, sortie);
+    }
+
+    /** Formulaire de commande, avec un choix par véhicule proposé. */
+    public static void ecrireCommande(Rendu rendu, Iterator<? extends Vehicule> vehicules, Writer sortie)
+            throws IOException {
+        COMMANDE.get(rendu).ecrire(vehicules, sortie);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mmx.bridge;
+
+class WidgetFormRenderer implements FormRenderer {
+    @Override
+    public String renderForm() {
+        return "WidgetForm()";
+    }
+    
+    @Override
+    public String renderField(String name, String type) {
+        return "WidgetField(name='" + name + "', type='" + type + "')";
+    }
+    
+    @Override
+    public String renderFormEnd() {
+        return "WidgetFormEnd()";
+    }
+    
+    @Override
+    public String renderTitle(String title) {
+        return "WidgetTitle('" + title + "')\n";
+    }
+    
+    @Override
+    public String renderSelect(String name) {
+        return "WidgetSelect(name='" + name + "')\n";
+    }
+    
+    @Override
+    public String renderSelectEnd() {
+        return "WidgetSelectEnd()\n";
+    }
+    
+    @Override
+    public String renderOption(String value, String label) {
+        return "WidgetOption(value='" + value + "', label='" + label + "')\n";
+    }
+    
+    @Override
+    public String renderListStart() {
+        return "WidgetList()\n";
+    }
+    
+    @Override
+    public String renderListItem(String text) {
+        return "WidgetItem('" + text + "')\n";
+    }
+    
+    @Override
+    public String renderListEnd() {
+        return "WidgetListEnd()\n";
+    }
+    
+    @Override
+    public String escape(String value) {
+        return value.replace("\\", "\\\\").replace("'", "\\'").replace("\n", " ");
+    }
+    
+    @Override
+    public String contentType() {
+        return "text/plain;charset=UTF-8";
+    }
+}
@@ -27,10 +27,8 @@ class SoldeVehiculeCommand implements Command {
     @Override
     public void execute() {
         if (!executed) {
-            Vehicule vehicule = vehiculeService.getVehiculeById(vehiculeId);
+            Vehicule vehicule = vehiculeService.modifierPrix(vehiculeId, nouveauPrix);
             if (vehicule != null) {
-                vehicule.setPrix(nouveauPrix);
-                vehiculeService.updateVehicule(vehicule);
                 System.out.println("Véhicule " + vehiculeId + " soldé: " + ancienPrix + "€ -> " + nouveauPrix + "€");
             }
             executed = true;
@@ -40,10 +38,8 @@ class SoldeVehiculeCommand implements Command {
     @Override
     public void undo() {
         if (executed) {
-            Vehicule vehicule = vehiculeService.getVehiculeById(vehiculeId);
+            Vehicule vehicule = vehiculeService.modifierPrix(vehiculeId, ancienPrix);
             if (vehicule != null) {
-                vehicule.setPrix(ancienPrix);
-                vehiculeService.updateVehicule(vehicule);
                 System.out.println("Annulation solde véhicule " + vehiculeId + ": " + nouveauPrix + "€ -> " + ancienPrix + "€");
             }
             executed = false;
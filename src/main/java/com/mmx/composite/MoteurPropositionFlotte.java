@@ -0,0 +1,194 @@
+package com.mmx.composite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Calcul des propositions de flotte sur une hiérarchie de sociétés (Composite).
+ *
+ * Deux passes fork-join sur le sous-arbre :
+ *  1. ascendante : effectif total de chaque branche ;
+ *  2. descendante : répartition exacte des véhicules (plus fort reste) entre la
+ *     société et ses filiales, proportionnellement aux effectifs, puis chiffrage.
+ * Les petites branches sont traitées séquentiellement : une tâche par société
+ * coûterait plus que le calcul lui-même.
+ *
+ * Le moteur est générique : il suffit de savoir lire le nom, les filiales et
+ * l'effectif propre d'un nœud (SocieteClient, NoeudClient...).
+ */
+public class MoteurPropositionFlotte<T> {
+    
+    public static final double PRIX_UNITAIRE_DEFAUT = 25000;
+    
+    /** En dessous de ce nombre de sociétés, une branche est répartie sans créer de tâche. */
+    private static final int SEUIL_SEQUENTIEL = 64;
+    /** Au-delà de ce nombre de tâches en attente, la passe ascendante continue sans en créer d'autres. */
+    private static final int SURPLUS_MAX = 2;
+    
+    private final Function<T, String> nom;
+    private final Function<T, List<T>> filiales;
+    private final ToIntFunction<T> employesPropres;
+    private final ForkJoinPool pool;
+    
+    public MoteurPropositionFlotte(Function<T, String> nom,
+                                   Function<T, List<T>> filiales,
+                                   ToIntFunction<T> employesPropres) {
+        this(nom, filiales, employesPropres, ForkJoinPool.commonPool());
+    }
+    
+    public MoteurPropositionFlotte(Function<T, String> nom,
+                                   Function<T, List<T>> filiales,
+                                   ToIntFunction<T> employesPropres,
+                                   ForkJoinPool pool) {
+        this.nom = nom;
+        this.filiales = filiales;
+        this.employesPropres = employesPropres;
+        this.pool = pool;
+    }
+    
+    /**
+     * @param racine          société qui reçoit la proposition
+     * @param nombreVehicules nombre total de véhicules à répartir dans le groupe
+     * @param prixUnitaire    prix estimé d'un véhicule
+     * @param remise          remise en pourcentage appliquée à tout le groupe
+     */
+    public PropositionFlotte proposer(T racine, int nombreVehicules, double prixUnitaire, double remise) {
+        if (nombreVehicules < 0) {
+            throw new IllegalArgumentException("Nombre de véhicules négatif : " + nombreVehicules);
+        }
+        Branche branche = pool.invoke(new EffectifsTask(racine, filiales.apply(racine)));
+        double prixRemise = prixUnitaire * (1 - remise / 100);
+        return pool.invoke(new RepartitionTask(branche, nombreVehicules, 0, prixRemise, remise));
+    }
+    
+    /** Nœud intermédiaire portant l'effectif cumulé et la taille de sa branche. */
+    private static final class Branche {
+        final String nom;
+        final int employesPropres;
+        final long employesBranche;
+        final int societes;
+        final List<Branche> filiales;
+        
+        Branche(String nom, int employesPropres, List<Branche> filiales) {
+            this.nom = nom;
+            this.employesPropres = employesPropres;
+            this.filiales = filiales;
+            long total = employesPropres;
+            int nombre = 1;
+            for (Branche filiale : filiales) {
+                total += filiale.employesBranche;
+                nombre += filiale.societes;
+            }
+            this.employesBranche = total;
+            this.societes = nombre;
+        }
+    }
+    
+    /** Passe ascendante séquentielle ; les filiales de chaque nœud ne sont lues qu'une fois. */
+    private Branche branche(T noeud, List<T> enfants) {
+        List<Branche> branches = new ArrayList<>(enfants.size());
+        for (T enfant : enfants) {
+            branches.add(branche(enfant, filiales.apply(enfant)));
+        }
+        return new Branche(nom.apply(noeud), employesPropres.applyAsInt(noeud), branches);
+    }
+    
+    private final class EffectifsTask extends RecursiveTask<Branche> {
+        private static final long serialVersionUID = 1L;
+        
+        private final T noeud;
+        private final List<T> enfants;
+        
+        EffectifsTask(T noeud, List<T> enfants) {
+            this.noeud = noeud;
+            this.enfants = enfants;
+        }
+        
+        @Override
+        protected Branche compute() {
+            Branche[] branches = new Branche[enfants.size()];
+            List<EffectifsTask> taches = new ArrayList<>(Collections.nCopies(enfants.size(), null));
+            for (int i = 0; i < branches.length; i++) {
+                T enfant = enfants.get(i);
+                List<T> petitsEnfants = filiales.apply(enfant);
+                if (petitsEnfants.isEmpty() || getSurplusQueuedTaskCount() > SURPLUS_MAX) {
+                    // Feuille, ou assez de travail en attente pour les autres threads : calcul direct
+                    branches[i] = branche(enfant, petitsEnfants);
+                } else {
+                    EffectifsTask tache = new EffectifsTask(enfant, petitsEnfants);
+                    tache.fork();
+                    taches.set(i, tache);
+                }
+            }
+            for (int i = branches.length - 1; i >= 0; i--) {
+                if (taches.get(i) != null) {
+                    branches[i] = taches.get(i).join();
+                }
+            }
+            return new Branche(nom.apply(noeud), employesPropres.applyAsInt(noeud), Arrays.asList(branches));
+        }
+    }
+    
+    private static final class RepartitionTask extends RecursiveTask<PropositionFlotte> {
+        private static final long serialVersionUID = 1L;
+        
+        private final Branche branche;
+        private final int vehicules;
+        private final int niveau;
+        private final double prixRemise;
+        private final double remise;
+        
+        RepartitionTask(Branche branche, int vehicules, int niveau, double prixRemise, double remise) {
+            this.branche = branche;
+            this.vehicules = vehicules;
+            this.niveau = niveau;
+            this.prixRemise = prixRemise;
+            this.remise = remise;
+        }
+        
+        @Override
+        protected PropositionFlotte compute() {
+            return repartir(branche, vehicules, niveau, prixRemise, remise);
+        }
+        
+        /** Les filiales assez grandes sont confiées à des sous-tâches, les autres calculées sur place. */
+        private static PropositionFlotte repartir(Branche branche, int vehicules, int niveau,
+                                                  double prixRemise, double remise) {
+            List<Branche> enfants = branche.filiales;
+            int n = enfants.size();
+            long[] poids = new long[n + 1];
+            poids[0] = branche.employesPropres;
+            for (int i = 0; i < n; i++) {
+                poids[i + 1] = enfants.get(i).employesBranche;
+            }
+            int[] parts = RepartitionFlotte.repartir(vehicules, poids);
+            
+            PropositionFlotte[] propositions = new PropositionFlotte[n];
+            RepartitionTask[] taches = new RepartitionTask[n];
+            for (int i = 0; i < n; i++) {
+                if (enfants.get(i).societes >= SEUIL_SEQUENTIEL) {
+                    taches[i] = new RepartitionTask(enfants.get(i), parts[i + 1], niveau + 1, prixRemise, remise);
+                    taches[i].fork();
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (taches[i] == null) {
+                    propositions[i] = repartir(enfants.get(i), parts[i + 1], niveau + 1, prixRemise, remise);
+                }
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                if (taches[i] != null) {
+                    propositions[i] = taches[i].join();
+                }
+            }
+            return new PropositionFlotte(branche.nom, niveau, (int) Math.min(Integer.MAX_VALUE, branche.employesBranche),
+                                         parts[0], remise, parts[0] * prixRemise, Arrays.asList(propositions));
+        }
+    }
+}
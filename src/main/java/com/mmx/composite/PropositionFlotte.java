@@ -0,0 +1,82 @@
+package com.mmx.composite;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Proposition d'achat de flotte pour une société et, récursivement, ses filiales.
+ * Résultat structuré (immuable) produit par {@link MoteurPropositionFlotte}.
+ */
+public class PropositionFlotte {
+    private final String nom;
+    private final int niveau;
+    private final int nombreEmployes;
+    private final int vehicules;
+    private final int vehiculesBranche;
+    private final double remise;
+    private final double montant;
+    private final double montantBranche;
+    private final List<PropositionFlotte> filiales;
+    
+    public PropositionFlotte(String nom, int niveau, int nombreEmployes, int vehicules,
+                             double remise, double montant, List<PropositionFlotte> filiales) {
+        this.nom = nom;
+        this.niveau = niveau;
+        this.nombreEmployes = nombreEmployes;
+        this.vehicules = vehicules;
+        this.remise = remise;
+        this.montant = montant;
+        this.filiales = Collections.unmodifiableList(filiales);
+        
+        int totalVehicules = vehicules;
+        double totalMontant = montant;
+        for (PropositionFlotte filiale : filiales) {
+            totalVehicules += filiale.vehiculesBranche;
+            totalMontant += filiale.montantBranche;
+        }
+        this.vehiculesBranche = totalVehicules;
+        this.montantBranche = totalMontant;
+    }
+    
+    // Getters
+    public String getNom() { return nom; }
+    public int getNiveau() { return niveau; }
+    public int getNombreEmployes() { return nombreEmployes; }
+    
+    /** Véhicules attribués à la société elle-même (hors filiales). */
+    public int getVehicules() { return vehicules; }
+    
+    /** Véhicules attribués à toute la branche (société + filiales). */
+    public int getVehiculesBranche() { return vehiculesBranche; }
+    
+    public double getRemise() { return remise; }
+    public double getMontant() { return montant; }
+    public double getMontantBranche() { return montantBranche; }
+    public List<PropositionFlotte> getFiliales() { return filiales; }
+    
+    /**
+     * Rendu texte (format historique de proposerAchatFlotte), construit en une seule passe.
+     */
+    public String toTexte() {
+        StringBuilder sb = new StringBuilder();
+        ecrireTexte(sb, "");
+        if (!filiales.isEmpty()) {
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+    
+    private void ecrireTexte(StringBuilder sb, String indentation) {
+        if (filiales.isEmpty()) {
+            sb.append(String.format("Proposition envoyée à %s : %d véhicules (≈%.2f€)",
+                                    nom, vehicules, montant));
+            return;
+        }
+        sb.append(String.format("📦 Propositions pour le groupe %s:", nom));
+        String sousIndentation = indentation + "  ";
+        for (PropositionFlotte filiale : filiales) {
+            sb.append('\n').append(sousIndentation).append("• ");
+            filiale.ecrireTexte(sb, sousIndentation);
+        }
+    }
+}
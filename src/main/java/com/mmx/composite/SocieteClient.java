@@ -12,6 +12,7 @@ public interface SocieteClient {
     
     // Nouvelles méthodes pour démonstration
     String proposerAchatFlotte(int nombreVehicules);
+    PropositionFlotte proposerFlotte(int nombreVehicules);
     double calculerChiffreAffairesTotal();
     int getNombreTotalEmployes();
 }
@@ -44,9 +45,13 @@ class SocieteSimple implements SocieteClient {
     
     @Override
     public String proposerAchatFlotte(int nombreVehicules) {
-        double montantEstime = nombreVehicules * 25000; // 25k par véhicule
-        return String.format("Proposition envoyée à %s : %d véhicules (≈%.2f€)", 
-                           nom, nombreVehicules, montantEstime);
+        return proposerFlotte(nombreVehicules).toTexte();
+    }
+    
+    @Override
+    public PropositionFlotte proposerFlotte(int nombreVehicules) {
+        double montantEstime = nombreVehicules * MoteurPropositionFlotte.PRIX_UNITAIRE_DEFAUT;
+        return new PropositionFlotte(nom, 0, nombreEmployes, nombreVehicules, 0, montantEstime, new ArrayList<>());
     }
     
     @Override
@@ -71,6 +76,13 @@ class SocieteSimple implements SocieteClient {
 }
 
 class SocieteAvecFiliales implements SocieteClient {
+    // Un groupe n'a pas d'effectif propre : seules les sociétés simples reçoivent des véhicules
+    private static final MoteurPropositionFlotte<SocieteClient> MOTEUR = new MoteurPropositionFlotte<>(
+        SocieteClient::getNom,
+        SocieteClient::getFiliales,
+        societe -> societe.getFiliales().isEmpty() ? societe.getNombreTotalEmployes() : 0
+    );
+    
     private String nom;
     private List<SocieteClient> filiales = new ArrayList<>();
     
@@ -100,19 +112,13 @@ class SocieteAvecFiliales implements SocieteClient {
     
     @Override
     public String proposerAchatFlotte(int nombreVehicules) {
-        StringBuilder result = new StringBuilder();
-        result.append(String.format("📦 Propositions pour le groupe %s:\n", nom));
-        
-        // Répartir les véhicules proportionnellement aux employés
-        int totalEmployes = getNombreTotalEmployes();
-        if (totalEmployes > 0) {
-            for (SocieteClient filiale : filiales) {
-                int employesFiliale = filiale.getNombreTotalEmployes();
-                int vehiculesFiliale = (int) Math.round((double) employesFiliale / totalEmployes * nombreVehicules);
-                result.append("  • ").append(filiale.proposerAchatFlotte(vehiculesFiliale)).append("\n");
-            }
-        }
-        return result.toString();
+        return proposerFlotte(nombreVehicules).toTexte();
+    }
+    
+    @Override
+    public PropositionFlotte proposerFlotte(int nombreVehicules) {
+        // Répartition exacte (plus fort reste) proportionnelle aux employés, calculée en fork-join
+        return MOTEUR.proposer(this, nombreVehicules, MoteurPropositionFlotte.PRIX_UNITAIRE_DEFAUT, 0);
     }
     
     @Override
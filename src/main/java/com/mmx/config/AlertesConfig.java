@@ -0,0 +1,33 @@
+package com.mmx.config;
+
+import com.mmx.observer.Abonnement;
+import com.mmx.observer.CatalogueVehicule;
+import com.mmx.observer.MoteurAlertes;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Catalogue observable alimenté par {@link com.mmx.service.VehiculeService},
+ * et moteur d'alertes clients abonné à ses changements.
+ */
+@Configuration
+public class AlertesConfig {
+
+    private static final int CAPACITE_ALERTES = 1024;
+    private static final Duration FENETRE_ALERTES = Duration.ofMillis(250);
+
+    @Bean
+    public MoteurAlertes moteurAlertes() {
+        return new MoteurAlertes();
+    }
+
+    /** Une alerte ne doit pas être perdue : l'abonnement du moteur bloque l'émetteur plutôt que de rejeter. */
+    @Bean
+    public CatalogueVehicule catalogueVehicule(MoteurAlertes moteurAlertes) {
+        CatalogueVehicule catalogue = new CatalogueVehicule();
+        catalogue.registerObserver(moteurAlertes, CAPACITE_ALERTES, Abonnement.Politique.BLOQUER, FENETRE_ALERTES);
+        return catalogue;
+    }
+}
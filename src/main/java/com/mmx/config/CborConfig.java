@@ -0,0 +1,25 @@
+package com.mmx.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encodage binaire CBOR (RFC 8949) des réponses, choisi par le client avec {@code Accept: application/cbor}.
+ *
+ * Mêmes objets et mêmes sérialiseurs que le JSON : seul le format d'écriture change.
+ * Le JSON reste la réponse par défaut ; les corps déjà sérialisés en JSON (cache des réponses)
+ * ne sont pas concernés.
+ */
+@Configuration
+public class CborConfig {
+
+    /** Construit à partir du builder de Spring Boot : modules et options de dates identiques au JSON. */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+            builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+}
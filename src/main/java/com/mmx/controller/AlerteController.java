@@ -0,0 +1,77 @@
+package com.mmx.controller;
+
+import com.mmx.observer.Alerte;
+import com.mmx.observer.MoteurAlertes;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alertes des clients : déclenchées par les nouveaux véhicules, les baisses de prix et les retours en stock.
+ */
+@RestController
+@RequestMapping("/api/alertes")
+@CrossOrigin(origins = "*")
+public class AlerteController {
+
+    private final MoteurAlertes moteurAlertes;
+
+    public AlerteController(MoteurAlertes moteurAlertes) {
+        this.moteurAlertes = moteurAlertes;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getAlertes() {
+        List<Map<String, Object>> alertes = new ArrayList<>();
+        for (Alerte alerte : moteurAlertes.getAlertes()) {
+            alertes.add(versMap(alerte));
+        }
+        return ResponseEntity.ok(alertes);
+    }
+
+    /** Corps : client (obligatoire), marque, type, couleur et prixMax facultatifs. */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> creerAlerte(@RequestBody Map<String, Object> corps) {
+        Object client = corps.get("client");
+        if (!(client instanceof String) || ((String) client).isBlank()) {
+            throw new IllegalArgumentException("client est obligatoire");
+        }
+        Object prixMax = corps.get("prixMax");
+        if (prixMax != null && !(prixMax instanceof Number)) {
+            throw new IllegalArgumentException("prixMax doit être un nombre");
+        }
+        if (prixMax != null && ((Number) prixMax).doubleValue() < 0) {
+            throw new IllegalArgumentException("prixMax doit être positif");
+        }
+        Alerte alerte = moteurAlertes.ajouter((String) client, texte(corps, "marque"), texte(corps, "type"),
+            texte(corps, "couleur"), prixMax != null ? ((Number) prixMax).doubleValue() : null);
+        return ResponseEntity.status(HttpStatus.CREATED).body(versMap(alerte));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> supprimerAlerte(@PathVariable long id) {
+        return moteurAlertes.supprimer(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static String texte(Map<String, Object> corps, String cle) {
+        Object valeur = corps.get(cle);
+        return valeur != null ? valeur.toString() : null;
+    }
+
+    private static Map<String, Object> versMap(Alerte alerte) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", alerte.getId());
+        map.put("client", alerte.getClient());
+        map.put("marque", alerte.getMarque());
+        map.put("type", alerte.getType());
+        map.put("couleur", alerte.getCouleur());
+        // Sans prix maximum, le seuil interne est l'infini, qui n'a pas de représentation JSON
+        map.put("prixMax", Double.isInfinite(alerte.getPrixMax()) ? null : alerte.getPrixMax());
+        return map;
+    }
+}
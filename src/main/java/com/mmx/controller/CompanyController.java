@@ -1,7 +1,20 @@
 package com.mmx.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmx.composite.MoteurPropositionFlotte;
+import com.mmx.composite.NoeudClient;
+import com.mmx.composite.PropositionFlotte;
+import com.mmx.dto.SocieteDTO;
+import com.mmx.service.ClientHierarchieService;
+import com.mmx.service.ReponseCacheService;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 import java.util.*;
 
 @RestController
@@ -9,82 +22,127 @@ import java.util.*;
 @CrossOrigin(origins = "http://localhost:5173")
 public class CompanyController {
 
+    private static final MoteurPropositionFlotte<NoeudClient> MOTEUR_FLOTTE = new MoteurPropositionFlotte<>(
+        NoeudClient::getNom,
+        NoeudClient::getFiliales,
+        NoeudClient::getNombreEmployes
+    );
+
+    private final ClientHierarchieService hierarchieService;
+    private final ObjectMapper objectMapper;
+    private final ReponseCacheService reponseCacheService;
+
+    public CompanyController(ClientHierarchieService hierarchieService, ObjectMapper objectMapper,
+                             ReponseCacheService reponseCacheService) {
+        this.hierarchieService = hierarchieService;
+        this.objectMapper = objectMapper;
+        this.reponseCacheService = reponseCacheService;
+    }
+
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllCompanies() {
-        List<Map<String, Object>> companies = Arrays.asList(
-            createCompanyGroup(1, "Groupe Automobile France", "Holding", 1200,
-                Arrays.asList(
-                    createCompanyGroup(2, "Auto Distribution SA", "Distribution", 350,
-                        Arrays.asList(
-                            createCompany(3, "Concession Paris Nord", "Concession", 45),
-                            createCompany(4, "Concession Lyon Sud", "Concession", 38),
-                            createCompany(5, "Concession Marseille Est", "Concession", 32)
-                        )
-                    ),
-                    createCompanyGroup(6, "Fleet Solutions SARL", "Location", 120,
-                        Arrays.asList(
-                            createCompany(7, "Location Paris", "Agence", 25),
-                            createCompany(8, "Location Lyon", "Agence", 20),
-                            createCompany(9, "Location Nice", "Agence", 18)
-                        )
-                    ),
-                    createCompany(10, "Centre Technique National", "Maintenance", 85)
-                )
-            ),
-            createCompanyGroup(11, "Tech Innovators Inc", "Startup", 185,
-                Arrays.asList(
-                    createCompany(12, "R&D Department", "Recherche", 45),
-                    createCompany(13, "Sales Division", "Ventes", 65),
-                    createCompanyGroup(14, "International Offices", "Bureaux", 75,
-                        Arrays.asList(
-                            createCompany(15, "Tech EU - Berlin", "Bureau", 25),
-                            createCompany(16, "Tech EU - Paris", "Bureau", 22),
-                            createCompany(17, "Tech US - San Francisco", "Bureau", 28)
-                        )
-                    )
-                )
-            ),
-            createCompany(18, "Family Business SARL", "PME", 24),
-            createCompany(19, "Logistics Experts", "Logistique", 42)
-        );
-        
-        return ResponseEntity.ok(companies);
+    public ResponseEntity<byte[]> getAllCompanies(WebRequest webRequest) {
+        // Arbre chargé une seule fois (CTE récursive), JSON sérialisé une fois par version
+        return ReponsesJson.repondre(webRequest, reponseCacheService, "companies",
+            hierarchieService.getVersionHierarchie(), hierarchieService::getHierarchie);
     }
 
-    @PostMapping("/{companyId}/fleet-proposal")
-    public ResponseEntity<Map<String, Object>> sendFleetProposal(
-            @PathVariable int companyId,
-            @RequestBody Map<String, Object> proposal) {
-        
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createCompany(@RequestBody CompanyRequest request) {
+        NoeudClient client = new NoeudClient(null, request.getName(), "SOCIETE",
+            request.getType(), request.getEmployees(), request.getParentId());
+        client.setEmail(request.getEmail());
+        client.setTelephone(request.getPhone());
+        NoeudClient cree = hierarchieService.ajouterClient(client);
+
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", "Proposition de flotte envoyée");
-        response.put("companyId", companyId);
-        response.put("proposal", proposal);
-        response.put("sentAt", new Date());
-        response.put("estimatedVehicles", proposal.getOrDefault("vehicleCount", 10));
-        response.put("totalValue", proposal.getOrDefault("totalValue", 250000));
-        response.put("validUntil", new Date(System.currentTimeMillis() + 30L * 24 * 60 * 60 * 1000)); // +30 jours
-        
+        response.put("id", cree.getId());
+        response.put("parentId", cree.getSocieteMereId());
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/{companyId}/subsidiaries")
-    public ResponseEntity<List<Map<String, Object>>> getSubsidiaries(@PathVariable int companyId) {
-        // Simulation - dans la réalité, on irait chercher en base
-        List<Map<String, Object>> subsidiaries = new ArrayList<>();
+    @PutMapping("/{companyId}/parent")
+    public ResponseEntity<Map<String, Object>> changeParent(
+            @PathVariable Long companyId,
+            @RequestBody Map<String, Long> body) {
+        Long parentId = body.get("parentId");
+        hierarchieService.changerSocieteMere(companyId, parentId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("id", companyId);
+        response.put("parentId", parentId);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{companyId}")
+    public ResponseEntity<Void> deleteCompany(@PathVariable Long companyId) {
+        if (hierarchieService.supprimerClient(companyId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reloadHierarchy() {
+        hierarchieService.recharger();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("groups", hierarchieService.getHierarchie().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{companyId}/fleet-proposal")
+    public ResponseEntity<StreamingResponseBody> sendFleetProposal(
+            @PathVariable Long companyId,
+            @RequestBody Map<String, Object> proposal) {
         
-        if (companyId == 1) {
-            subsidiaries.add(createCompany(2, "Auto Distribution SA", "Distribution", 350));
-            subsidiaries.add(createCompany(6, "Fleet Solutions SARL", "Location", 120));
-            subsidiaries.add(createCompany(10, "Centre Technique National", "Maintenance", 85));
-        } else if (companyId == 2) {
-            subsidiaries.add(createCompany(3, "Concession Paris Nord", "Concession", 45));
-            subsidiaries.add(createCompany(4, "Concession Lyon Sud", "Concession", 38));
-            subsidiaries.add(createCompany(5, "Concession Marseille Est", "Concession", 32));
+        NoeudClient societe = hierarchieService.getClient(companyId);
+        if (societe == null) {
+            return ResponseEntity.notFound().build();
         }
         
-        return ResponseEntity.ok(subsidiaries);
+        double vehicules = nombre(proposal, "vehicleCount", 10);
+        double unitPrice = nombre(proposal, "unitPrice", MoteurPropositionFlotte.PRIX_UNITAIRE_DEFAUT);
+        double discount = nombre(proposal, "discount", 0);
+        if (vehicules < 0 || vehicules > Integer.MAX_VALUE || vehicules != Math.floor(vehicules)) {
+            throw new IllegalArgumentException("vehicleCount doit être un entier positif");
+        }
+        if (unitPrice < 0) {
+            throw new IllegalArgumentException("unitPrice doit être positif");
+        }
+        if (discount < 0 || discount > 100) {
+            throw new IllegalArgumentException("discount doit être compris entre 0 et 100");
+        }
+        int vehicleCount = (int) vehicules;
+        
+        // Répartition exacte entre la société et toutes ses filiales, chiffrée en parallèle
+        PropositionFlotte resultat = MOTEUR_FLOTTE.proposer(societe, vehicleCount, unitPrice, discount);
+        Date sentAt = new Date();
+        Date validUntil = new Date(sentAt.getTime() + 30L * 24 * 60 * 60 * 1000); // +30 jours
+        
+        // Réponse écrite directement sur le flux, sans construire de Map intermédiaire
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeBooleanField("success", true);
+                gen.writeStringField("message", "Proposition de flotte envoyée");
+                gen.writeNumberField("companyId", companyId);
+                gen.writeObjectField("sentAt", sentAt);
+                gen.writeNumberField("estimatedVehicles", resultat.getVehiculesBranche());
+                gen.writeNumberField("totalValue", resultat.getMontantBranche());
+                gen.writeObjectField("validUntil", validUntil);
+                gen.writeFieldName("distribution");
+                writeProposition(gen, resultat);
+                gen.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/{companyId}/subsidiaries")
+    public ResponseEntity<List<SocieteDTO>> getSubsidiaries(@PathVariable Long companyId) {
+        return ResponseEntity.ok(hierarchieService.getFiliales(companyId));
     }
 
     @PostMapping("/bulk-fleet-proposal")
@@ -116,34 +174,72 @@ public class CompanyController {
         return ResponseEntity.ok(response);
     }
 
-    private Map<String, Object> createCompany(int id, String name, String type, int employees) {
-        Map<String, Object> company = new HashMap<>();
-        company.put("id", id);
-        company.put("name", name);
-        company.put("type", type);
-        company.put("employees", employees);
-        company.put("isGroup", false);
-        company.put("createdAt", new Date());
-        return company;
+    /** Valeur numérique du corps (nombre ou texte numérique) ; toute autre valeur donne une réponse 400. */
+    private static double nombre(Map<String, Object> corps, String cle, double defaut) {
+        Object valeur = corps.get(cle);
+        if (valeur == null) {
+            return defaut;
+        }
+        double nombre;
+        if (valeur instanceof Number) {
+            nombre = ((Number) valeur).doubleValue();
+        } else {
+            try {
+                nombre = Double.parseDouble(valeur.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(cle + " doit être un nombre : " + valeur);
+            }
+        }
+        if (Double.isNaN(nombre) || Double.isInfinite(nombre)) {
+            throw new IllegalArgumentException(cle + " doit être un nombre : " + valeur);
+        }
+        return nombre;
     }
 
-    private Map<String, Object> createCompanyGroup(int id, String name, String type, int employees, 
-                                                   List<Map<String, Object>> subsidiaries) {
-        Map<String, Object> company = createCompany(id, name, type, employees);
-        company.put("isGroup", true);
-        company.put("subsidiaries", subsidiaries);
-        company.put("totalEmployees", calculateTotalEmployees(subsidiaries) + employees);
-        return company;
+    private void writeProposition(JsonGenerator gen, PropositionFlotte proposition) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("name", proposition.getNom());
+        gen.writeNumberField("level", proposition.getNiveau());
+        gen.writeNumberField("employees", proposition.getNombreEmployes());
+        gen.writeNumberField("vehicles", proposition.getVehicules());
+        gen.writeNumberField("branchVehicles", proposition.getVehiculesBranche());
+        gen.writeNumberField("discount", proposition.getRemise());
+        gen.writeNumberField("amount", proposition.getMontant());
+        gen.writeNumberField("branchAmount", proposition.getMontantBranche());
+        gen.writeArrayFieldStart("subsidiaries");
+        for (PropositionFlotte filiale : proposition.getFiliales()) {
+            writeProposition(gen, filiale);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
     }
 
-    private int calculateTotalEmployees(List<Map<String, Object>> companies) {
-        int total = 0;
-        for (Map<String, Object> company : companies) {
-            total += (int) company.get("employees");
-            if ((boolean) company.getOrDefault("isGroup", false)) {
-                total += calculateTotalEmployees((List<Map<String, Object>>) company.get("subsidiaries"));
-            }
-        }
-        return total;
+    // Classe DTO pour la création d'une société
+    static class CompanyRequest {
+        private String name;
+        private String type;
+        private int employees;
+        private String email;
+        private String phone;
+        private Long parentId;
+
+        // Getters et setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public int getEmployees() { return employees; }
+        public void setEmployees(int employees) { this.employees = employees; }
+
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+
+        public String getPhone() { return phone; }
+        public void setPhone(String phone) { this.phone = phone; }
+
+        public Long getParentId() { return parentId; }
+        public void setParentId(Long parentId) { this.parentId = parentId; }
     }
 }
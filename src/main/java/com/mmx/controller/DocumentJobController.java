@@ -0,0 +1,198 @@
+package com.mmx.controller;
+
+import com.mmx.builder.LiasseDocument;
+import com.mmx.pdf.Invoice;
+import com.mmx.pdf.InvoicePDFService;
+import com.mmx.pdf.PDFGeneratorBuilder;
+import com.mmx.service.*;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Génération asynchrone des documents : la soumission répond 202 avec l'identifiant du job,
+ * le client interroge ensuite son statut (ou l'attend en long polling) puis télécharge le résultat.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class DocumentJobController {
+
+    private static final long ATTENTE_MAX_SECONDES = 60;
+
+    private final DocumentJobService documentJobService;
+    private final InvoiceService invoiceService;
+    private final FactureDocumentService factureDocumentService;
+    private final InvoiceExportService invoiceExportService;
+    private final LiasseService liasseService;
+
+    public DocumentJobController(DocumentJobService documentJobService, InvoiceService invoiceService,
+                                 FactureDocumentService factureDocumentService,
+                                 InvoiceExportService invoiceExportService, LiasseService liasseService) {
+        this.documentJobService = documentJobService;
+        this.invoiceService = invoiceService;
+        this.factureDocumentService = factureDocumentService;
+        this.invoiceExportService = invoiceExportService;
+        this.liasseService = liasseService;
+    }
+
+    @PostMapping("/invoices/{id}")
+    public ResponseEntity<Map<String, Object>> submitInvoicePDF(
+            @PathVariable Long id,
+            @RequestBody InvoiceController.PDFRequest request) {
+
+        Invoice invoice = invoiceService.getInvoiceById(id);
+        if (invoice == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return soumettre("invoice-pdf", DocumentJob.Priorite.UNITAIRE, "application/pdf",
+            factureDocumentService.nomFichier(invoice), () -> {
+                Resource pdf = factureDocumentService.genererPDF(invoice,
+                    request.isIncludeLogo(), request.isIncludeQRCode(), request.getWatermark());
+                // Le fichier du cache peut être évincé avant le téléchargement :
+                // le job garde sa propre copie, supprimée avec lui
+                Path copie = Files.createTempFile("mmx-job", ".pdf");
+                try (InputStream in = pdf.getInputStream()) {
+                    Files.copy(in, copie, StandardCopyOption.REPLACE_EXISTING);
+                } catch (Exception e) {
+                    Files.deleteIfExists(copie);
+                    throw e;
+                }
+                invoiceService.markInvoiceAsPDFGenerated(id);
+                return copie;
+            });
+    }
+
+    @PostMapping("/liasses")
+    public ResponseEntity<Map<String, Object>> submitLiasse(@RequestBody LiasseController.LiasseRequest request) {
+        return soumettre("liasse", DocumentJob.Priorite.UNITAIRE, null, null, () -> {
+            LiasseDocument liasse = liasseService.genererLiasseComplete(
+                request.getOrderId(),
+                request.getClientName(),
+                request.getVehicleModel(),
+                request.getPrice(),
+                request.getOptions(),
+                request.getFormat()
+            );
+            return LiasseController.creerReponse(request, liasse, liasseService.genererResumeLiasse(liasse));
+        });
+    }
+
+    /** Export ZIP en masse : priorité basse, il ne passe qu'après les documents unitaires en attente. */
+    @PostMapping("/invoices/export")
+    public ResponseEntity<Map<String, Object>> submitInvoiceExport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeLogo,
+            @RequestParam(defaultValue = "false") boolean includeQRCode) {
+
+        InvoicePDFService pdfService = new PDFGeneratorBuilder()
+            .withLogo(includeLogo)
+            .withQRCode(includeQRCode)
+            .build();
+        String fileName = "factures_" + (from != null ? from : "debut") + "_" + (to != null ? to : "fin") + ".zip";
+
+        return soumettre("invoice-export", DocumentJob.Priorite.EXPORT, "application/zip", fileName, () -> {
+            Path zip = Files.createTempFile("mmx-export", ".zip");
+            try (OutputStream out = Files.newOutputStream(zip)) {
+                invoiceExportService.exporterZip(invoiceService.findInvoices(from, to, status), pdfService, out);
+            } catch (Exception e) {
+                Files.deleteIfExists(zip);
+                throw e;
+            }
+            return zip;
+        });
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        DocumentJob job = documentJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.toMap());
+    }
+
+    /**
+     * Long polling : répond dès que le job est terminé, ou avec son statut courant après {@code timeout} secondes.
+     * Aucun thread de Tomcat n'est retenu pendant l'attente.
+     */
+    @GetMapping("/{jobId}/wait")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> waitForJob(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "30") long timeout) {
+        DocumentJob job = documentJobService.getJob(jobId);
+        if (job == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        long secondes = Math.max(0, Math.min(timeout, ATTENTE_MAX_SECONDES));
+        return documentJobService.attendre(job, secondes)
+            .thenApply(termine -> ResponseEntity.ok(termine.toMap()));
+    }
+
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> getJobResult(@PathVariable String jobId) {
+        DocumentJob job = documentJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatut() != DocumentJob.Statut.TERMINE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.toMap());
+        }
+
+        Object resultat = job.getResultat();
+        if (resultat instanceof Path) {
+            resultat = new FileSystemResource((Path) resultat);
+        }
+        if (!(resultat instanceof Resource)) {
+            return ResponseEntity.ok(resultat);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getTypeMime()));
+        headers.setContentDispositionFormData("attachment", job.getNomFichier());
+        return new ResponseEntity<>(resultat, headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(documentJobService.getMetriques());
+    }
+
+    private ResponseEntity<Map<String, Object>> soumettre(String type, DocumentJob.Priorite priorite,
+                                                          String typeMime, String nomFichier,
+                                                          DocumentJobService.Rendu rendu) {
+        try {
+            DocumentJob job = documentJobService.soumettre(type, priorite, typeMime, nomFichier, rendu);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/jobs/" + job.getId())
+                .body(job.toMap());
+        } catch (RejectedExecutionException e) {
+            // File pleine : le client doit ralentir et réessayer plus tard
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("metrics", documentJobService.getMetriques());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(response);
+        }
+    }
+}
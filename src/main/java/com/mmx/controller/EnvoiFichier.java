@@ -0,0 +1,35 @@
+package com.mmx.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.file.Path;
+
+/**
+ * Envoi direct d'un fichier par le connecteur Tomcat (sendfile, sans copie en espace utilisateur).
+ */
+final class EnvoiFichier {
+
+    // Attributs de requête de Tomcat pour l'envoi direct d'un fichier
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private EnvoiFichier() {
+    }
+
+    /**
+     * Confie le fichier au connecteur s'il sait l'envoyer lui-même ; la réponse ne porte
+     * alors que les en-têtes. Retourne false si le connecteur ne le permet pas ou pour un HEAD :
+     * le corps éventuel reste à écrire.
+     */
+    static boolean preparer(HttpServletRequest request, Path fichier, long longueur) {
+        if ("HEAD".equals(request.getMethod()) || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            return false;
+        }
+        // Le connecteur envoie le fichier une fois les en-têtes écrits
+        request.setAttribute(SENDFILE_FILENAME, fichier.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, 0L);
+        request.setAttribute(SENDFILE_END, longueur);
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mmx.controller;
+
+import com.mmx.service.EvenementService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Flux SSE des changements de commandes et de stock, à la place du rechargement périodique des listes.
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EvenementController {
+    
+    private final EvenementService evenementService;
+    
+    public EvenementController(EvenementService evenementService) {
+        this.evenementService = evenementService;
+    }
+    
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(defaultValue = "orders,stock") String topics,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Set<String> sujets = new HashSet<>(Arrays.asList(topics.split(",")));
+        sujets.retainAll(Arrays.asList(EvenementService.SUJET_COMMANDES, EvenementService.SUJET_STOCK));
+        if (sujets.isEmpty()) {
+            throw new IllegalArgumentException("Sujets inconnus: " + topics);
+        }
+        return evenementService.abonner(sujets, lastEventId);
+    }
+}
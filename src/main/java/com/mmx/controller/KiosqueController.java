@@ -0,0 +1,60 @@
+package com.mmx.controller;
+
+import com.mmx.bridge.PlansFormulaires;
+import com.mmx.iterator.CritereVehicule;
+import com.mmx.service.VehiculeService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pages pré-rendues pour les bornes : le serveur produit le formulaire complet
+ * (HTML ou widgets) et l'écrit directement dans la réponse.
+ */
+@RestController
+@RequestMapping("/api/kiosque")
+@CrossOrigin(origins = "*")
+public class KiosqueController {
+    
+    private final VehiculeService vehiculeService;
+    
+    public KiosqueController(VehiculeService vehiculeService) {
+        this.vehiculeService = vehiculeService;
+    }
+    
+    @GetMapping("/catalogue")
+    public ResponseEntity<StreamingResponseBody> getCatalogue(
+            @RequestParam(defaultValue = "html") String rendu,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String energie,
+            @RequestParam(required = false) Boolean enStock) {
+        PlansFormulaires.Rendu format = PlansFormulaires.Rendu.depuis(rendu);
+        CritereVehicule critere = CritereVehicule.tous().type(type).energie(energie).enStock(enStock);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .body(out -> {
+                Writer sortie = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                PlansFormulaires.ecrireCatalogue(format, vehiculeService.rechercher(critere), sortie);
+                sortie.flush();
+            });
+    }
+    
+    @GetMapping("/commande")
+    public ResponseEntity<StreamingResponseBody> getCommandeForm(@RequestParam(defaultValue = "html") String rendu) {
+        PlansFormulaires.Rendu format = PlansFormulaires.Rendu.depuis(rendu);
+        CritereVehicule critere = CritereVehicule.tous().enStock(true);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .body(out -> {
+                Writer sortie = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                PlansFormulaires.ecrireCommande(format, vehiculeService.rechercher(critere), sortie);
+                sortie.flush();
+            });
+    }
+}
@@ -31,20 +31,8 @@ public class LiasseController {
                 request.getFormat()
             );
             
-            // Générer un résumé
-            String resume = liasseService.genererResumeLiasse(liasse);
-            
             // Préparer la réponse
-            LiasseResponse response = new LiasseResponse(
-                resume,
-                request.getOrderId(),
-                liasse.getFormat(),
-                new java.util.Date().toString(),
-                3,
-                liasse.getDemandeImmatriculation().substring(0, Math.min(150, liasse.getDemandeImmatriculation().length())),
-                liasse.getCertificatCession().substring(0, Math.min(150, liasse.getCertificatCession().length())),
-                liasse.getBonCommande().substring(0, Math.min(150, liasse.getBonCommande().length()))
-            );
+            LiasseResponse response = creerReponse(request, liasse, liasseService.genererResumeLiasse(liasse));
             
             System.out.println("✅ Liasse générée avec succès pour la commande " + request.getOrderId());
             return ResponseEntity.ok(response);
@@ -57,6 +45,20 @@ public class LiasseController {
         }
     }
     
+    /** Réponse de génération, partagée avec les jobs asynchrones. */
+    static LiasseResponse creerReponse(LiasseRequest request, LiasseDocument liasse, String resume) {
+        return new LiasseResponse(
+            resume,
+            request.getOrderId(),
+            liasse.getFormat(),
+            new java.util.Date().toString(),
+            3,
+            liasse.getDemandeImmatriculation().substring(0, Math.min(150, liasse.getDemandeImmatriculation().length())),
+            liasse.getCertificatCession().substring(0, Math.min(150, liasse.getCertificatCession().length())),
+            liasse.getBonCommande().substring(0, Math.min(150, liasse.getBonCommande().length()))
+        );
+    }
+    
     @GetMapping("/test")
     public ResponseEntity<String> testLiasse() {
         try {
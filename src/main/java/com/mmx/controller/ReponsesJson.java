@@ -0,0 +1,45 @@
+package com.mmx.controller;
+
+import com.mmx.service.ReponseCacheService;
+import com.mmx.service.VersionDonnees;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Réponses JSON servies depuis {@link ReponseCacheService} : 304 si le client est à jour,
+ * sinon les octets mémorisés, compressés si le client accepte gzip.
+ */
+final class ReponsesJson {
+
+    private ReponsesJson() {
+    }
+
+    static ResponseEntity<byte[]> repondre(WebRequest webRequest, ReponseCacheService cache, String cle,
+                                           VersionDonnees versionDonnees, Supplier<?> modele) {
+        long version = versionDonnees.getVersion();
+        long derniereModification = versionDonnees.getDerniereModification();
+        String etag = versionDonnees.etag(version);
+        if (webRequest.checkNotModified(etag, derniereModification)) {
+            return null;
+        }
+
+        ReponseCacheService.Reponse reponse = cache.obtenir(cle, version, modele);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(etag)
+            .lastModified(derniereModification)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (reponse.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            // Déjà compressée : le connecteur ne la recompresse pas (Content-Encoding présent)
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentLength(reponse.getGzip().length)
+                .body(reponse.getGzip());
+        }
+        return builder.contentLength(reponse.getJson().length).body(reponse.getJson());
+    }
+}
@@ -1,14 +1,18 @@
 package com.mmx.controller;
 
+import com.mmx.iterator.CritereVehicule;
 import com.mmx.model.Vehicule;
 import com.mmx.service.VehiculeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/vehicules")
@@ -19,30 +23,47 @@ public class VehiculeController {
     private VehiculeService vehiculeService;
     
     @GetMapping
-    public ResponseEntity<List<Vehicule>> getAllVehicules() {
-        List<Vehicule> vehicules = vehiculeService.getAllVehicules();
-        return ResponseEntity.ok(vehicules);
+    public ResponseEntity<List<Vehicule>> getAllVehicules(WebRequest webRequest) {
+        return conditionnel(webRequest, vehiculeService::getAllVehicules);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Vehicule> getVehiculeById(@PathVariable Long id) {
+    public ResponseEntity<Vehicule> getVehiculeById(@PathVariable Long id, WebRequest webRequest) {
         Vehicule vehicule = vehiculeService.getVehiculeById(id);
         if (vehicule != null) {
-            return ResponseEntity.ok(vehicule);
+            return conditionnel(webRequest, () -> vehicule);
         }
         return ResponseEntity.notFound().build();
     }
     
     @GetMapping("/en-stock")
-    public ResponseEntity<List<Vehicule>> getVehiculesEnStock() {
-        List<Vehicule> vehicules = vehiculeService.getVehiculesEnStock();
-        return ResponseEntity.ok(vehicules);
+    public ResponseEntity<List<Vehicule>> getVehiculesEnStock(WebRequest webRequest) {
+        return conditionnel(webRequest, vehiculeService::getVehiculesEnStock);
     }
     
     @GetMapping("/vendus")
-    public ResponseEntity<List<Vehicule>> getVehiculesVendus() {
-        List<Vehicule> vehicules = vehiculeService.getVehiculesVendus();
-        return ResponseEntity.ok(vehicules);
+    public ResponseEntity<List<Vehicule>> getVehiculesVendus(WebRequest webRequest) {
+        return conditionnel(webRequest, vehiculeService::getVehiculesVendus);
+    }
+    
+    @GetMapping("/filtre")
+    public ResponseEntity<List<Vehicule>> getVehiculesFiltres(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String energie,
+            @RequestParam(required = false) Double prixMin,
+            @RequestParam(required = false) Double prixMax,
+            @RequestParam(required = false) Boolean enStock,
+            WebRequest webRequest) {
+        return conditionnel(webRequest, () -> rechercher(CritereVehicule.tous()
+            .type(type)
+            .energie(energie)
+            .prixEntre(prixMin, prixMax)
+            .enStock(enStock)));
+    }
+    
+    @GetMapping("/energie/{energie}")
+    public ResponseEntity<List<Vehicule>> getVehiculesByEnergie(@PathVariable String energie, WebRequest webRequest) {
+        return conditionnel(webRequest, () -> rechercher(CritereVehicule.tous().energie(energie)));
     }
     
     @PostMapping("/{id}/solder")
@@ -55,6 +76,24 @@ public class VehiculeController {
         return ResponseEntity.notFound().build();
     }
     
+    @PutMapping("/{id}/prix")
+    public ResponseEntity<Vehicule> modifierPrix(@PathVariable Long id, @RequestParam double prix) {
+        Vehicule vehicule = vehiculeService.modifierPrix(id, prix);
+        if (vehicule != null) {
+            return ResponseEntity.ok(vehicule);
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    @PostMapping("/{id}/reapprovisionner")
+    public ResponseEntity<Vehicule> reapprovisionner(@PathVariable Long id, @RequestParam int quantite) {
+        Vehicule vehicule = vehiculeService.reapprovisionner(id, quantite);
+        if (vehicule != null) {
+            return ResponseEntity.ok(vehicule);
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
     @GetMapping("/test")
     public ResponseEntity<Map<String, String>> test() {
         Map<String, String> response = new HashMap<>();
@@ -119,4 +158,15 @@ public class VehiculeController {
         public double getPrix() { return prix; }
         public void setPrix(double prix) { this.prix = prix; }
     }
+    
+    /** 304 si le catalogue n'a pas changé depuis la version du client, avant toute lecture ou sérialisation. */
+    private <T> ResponseEntity<T> conditionnel(WebRequest webRequest, Supplier<T> corps) {
+        return ReponsesConditionnelles.repondre(webRequest, vehiculeService.getVersionCatalogue(), corps);
+    }
+    
+    private List<Vehicule> rechercher(CritereVehicule critere) {
+        List<Vehicule> vehicules = new ArrayList<>();
+        vehiculeService.rechercher(critere).forEachRemaining(vehicules::add);
+        return vehicules;
+    }
 }
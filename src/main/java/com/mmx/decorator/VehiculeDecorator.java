@@ -1,22 +1,49 @@
 package com.mmx.decorator;
 
 class BasicVehiculeDisplay implements VehiculeDisplay {
-    private String modele;
-    private double prix;
+    private volatile String modele;
+    private volatile double prix;
+    private volatile long version;
     
     public BasicVehiculeDisplay(String modele, double prix) {
         this.modele = modele;
         this.prix = prix;
     }
     
+    /** Changement du véhicule : les affichages décorés mémorisés seront recalculés. */
+    public synchronized void modifier(String modele, double prix) {
+        this.modele = modele;
+        this.prix = prix;
+        version++;
+    }
+    
     @Override
     public String display() {
         return modele + " - " + prix + " €";
     }
+    
+    @Override
+    public void display(StringBuilder sortie) {
+        sortie.append(modele).append(" - ").append(prix).append(" €");
+    }
+    
+    @Override
+    public long version() {
+        return version;
+    }
 }
 
+/**
+ * Les décorateurs sont immuables : pour une pile donnée, le rendu ne dépend que de la version
+ * du véhicule. Il est donc calculé une fois, en une passe dans un tampon partagé par thread,
+ * puis mémorisé jusqu'à la prochaine modification du véhicule. Un affichage sans version
+ * ({@link VehiculeDisplay#NON_VERSIONNE}) est recalculé à chaque appel.
+ */
 abstract class DisplayDecorator implements VehiculeDisplay {
+    private static final ThreadLocal<StringBuilder> TAMPON = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    
     protected VehiculeDisplay decoratedDisplay;
+    private volatile Rendu rendu;
     
     public DisplayDecorator(VehiculeDisplay decoratedDisplay) {
         this.decoratedDisplay = decoratedDisplay;
@@ -24,12 +51,44 @@ abstract class DisplayDecorator implements VehiculeDisplay {
     
     @Override
     public String display() {
-        return decoratedDisplay.display();
+        long version = version();
+        Rendu memorise = rendu;
+        if (memorise != null && memorise.version == version && version != NON_VERSIONNE) {
+            return memorise.texte;
+        }
+        StringBuilder tampon = TAMPON.get();
+        tampon.setLength(0);
+        display(tampon);
+        String texte = tampon.toString();
+        if (version != NON_VERSIONNE) {
+            rendu = new Rendu(version, texte);
+        }
+        return texte;
+    }
+    
+    @Override
+    public void display(StringBuilder sortie) {
+        decoratedDisplay.display(sortie);
+    }
+    
+    @Override
+    public long version() {
+        return decoratedDisplay.version();
+    }
+    
+    private static final class Rendu {
+        private final long version;
+        private final String texte;
+        
+        Rendu(long version, String texte) {
+            this.version = version;
+            this.texte = texte;
+        }
     }
 }
 
 class VehiculeWithImage extends DisplayDecorator {
-    private String imageUrl;
+    private final String imageUrl;
     
     public VehiculeWithImage(VehiculeDisplay decoratedDisplay, String imageUrl) {
         super(decoratedDisplay);
@@ -37,13 +96,14 @@ class VehiculeWithImage extends DisplayDecorator {
     }
     
     @Override
-    public String display() {
-        return super.display() + " [Image: " + imageUrl + "]";
+    public void display(StringBuilder sortie) {
+        super.display(sortie);
+        sortie.append(" [Image: ").append(imageUrl).append(']');
     }
 }
 
 class VehiculeWithOptions extends DisplayDecorator {
-    private String options;
+    private final String options;
     
     public VehiculeWithOptions(VehiculeDisplay decoratedDisplay, String options) {
         super(decoratedDisplay);
@@ -51,13 +111,14 @@ class VehiculeWithOptions extends DisplayDecorator {
     }
     
     @Override
-    public String display() {
-        return super.display() + " [Options: " + options + "]";
+    public void display(StringBuilder sortie) {
+        super.display(sortie);
+        sortie.append(" [Options: ").append(options).append(']');
     }
 }
 
 class VehiculeWithAnimation extends DisplayDecorator {
-    private String animationUrl;
+    private final String animationUrl;
     
     public VehiculeWithAnimation(VehiculeDisplay decoratedDisplay, String animationUrl) {
         super(decoratedDisplay);
@@ -65,7 +126,8 @@ class VehiculeWithAnimation extends DisplayDecorator {
     }
     
     @Override
-    public String display() {
-        return super.display() + " [Animation: " + animationUrl + "]";
+    public void display(StringBuilder sortie) {
+        super.display(sortie);
+        sortie.append(" [Animation: ").append(animationUrl).append(']');
     }
 }
@@ -1,5 +1,21 @@
 package com.mmx.decorator;
 
 public interface VehiculeDisplay {
+    /** Version d'un affichage qui ne signale pas ses modifications : ses rendus ne sont jamais mémorisés. */
+    long NON_VERSIONNE = -1;
+
     String display();
+
+    /** Rendu à la suite de {@code sortie} : toute la chaîne de décorateurs écrit dans le même tampon. */
+    default void display(StringBuilder sortie) {
+        sortie.append(display());
+    }
+
+    /**
+     * Version du véhicule affiché ; change à chaque modification, ce qui périme les rendus mémorisés.
+     * Par défaut {@link #NON_VERSIONNE} : sans version fiable, la mémorisation est désactivée.
+     */
+    default long version() {
+        return NON_VERSIONNE;
+    }
 }
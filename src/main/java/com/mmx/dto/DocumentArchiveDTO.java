@@ -0,0 +1,58 @@
+package com.mmx.dto;
+
+import java.time.LocalDateTime;
+
+public class DocumentArchiveDTO {
+    private Long id;
+    private String commandeReference;
+    private String typeDocument;
+    private String format;
+    private String nomFichier;
+    private String empreinte;
+    private long taille;
+    private String typeMime;
+    private LocalDateTime createdAt;
+    
+    // Constructeurs
+    public DocumentArchiveDTO() {}
+    
+    public DocumentArchiveDTO(Long id, String commandeReference, String typeDocument, String format,
+                              String nomFichier, String empreinte, long taille, String typeMime) {
+        this.id = id;
+        this.commandeReference = commandeReference;
+        this.typeDocument = typeDocument;
+        this.format = format;
+        this.nomFichier = nomFichier;
+        this.empreinte = empreinte;
+        this.taille = taille;
+        this.typeMime = typeMime;
+    }
+    
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getCommandeReference() { return commandeReference; }
+    public void setCommandeReference(String commandeReference) { this.commandeReference = commandeReference; }
+    
+    public String getTypeDocument() { return typeDocument; }
+    public void setTypeDocument(String typeDocument) { this.typeDocument = typeDocument; }
+    
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+    
+    public String getNomFichier() { return nomFichier; }
+    public void setNomFichier(String nomFichier) { this.nomFichier = nomFichier; }
+    
+    public String getEmpreinte() { return empreinte; }
+    public void setEmpreinte(String empreinte) { this.empreinte = empreinte; }
+    
+    public long getTaille() { return taille; }
+    public void setTaille(long taille) { this.taille = taille; }
+    
+    public String getTypeMime() { return typeMime; }
+    public void setTypeMime(String typeMime) { this.typeMime = typeMime; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
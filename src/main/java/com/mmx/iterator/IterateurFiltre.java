@@ -0,0 +1,71 @@
+package com.mmx.iterator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Itérateur filtrant, évalué au fil du parcours : aucun résultat intermédiaire n'est matérialisé.
+ *
+ * Les filtres se composent ({@link #filtrer}) en un seul prédicat sur la même source,
+ * sans empiler un itérateur par critère.
+ */
+public class IterateurFiltre<T> implements VehiculeIterator, Iterator<T> {
+
+    private final Supplier<? extends Iterator<? extends T>> source;
+    private final Predicate<? super T> predicat;
+    private Iterator<? extends T> courant;
+    private T prochain;
+    private boolean prochainTrouve;
+
+    private IterateurFiltre(Supplier<? extends Iterator<? extends T>> source, Predicate<? super T> predicat) {
+        this.source = source;
+        this.predicat = predicat;
+        this.courant = source.get();
+    }
+
+    /** @param source fournit un nouvel itérateur à chaque {@link #reset()} */
+    public static <T> IterateurFiltre<T> de(Supplier<? extends Iterator<? extends T>> source) {
+        return new IterateurFiltre<>(source, element -> true);
+    }
+
+    /** Ajoute un critère ; null ne filtre rien. Le parcours repart du début. */
+    public IterateurFiltre<T> filtrer(Predicate<? super T> critere) {
+        if (critere == null) {
+            return this;
+        }
+        Predicate<? super T> actuel = predicat;
+        return new IterateurFiltre<>(source, element -> actuel.test(element) && critere.test(element));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!prochainTrouve && courant.hasNext()) {
+            T element = courant.next();
+            if (predicat.test(element)) {
+                prochain = element;
+                prochainTrouve = true;
+            }
+        }
+        return prochainTrouve;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        prochainTrouve = false;
+        T element = prochain;
+        prochain = null;
+        return element;
+    }
+
+    @Override
+    public void reset() {
+        courant = source.get();
+        prochain = null;
+        prochainTrouve = false;
+    }
+}
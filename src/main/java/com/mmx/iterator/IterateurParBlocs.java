@@ -0,0 +1,137 @@
+package com.mmx.iterator;
+
+import com.mmx.model.Vehicule;
+import com.mmx.repository.VehiculeRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Itérateur paresseux qui charge le catalogue par blocs de taille fixe.
+ *
+ * Chaque bloc est demandé à partir du dernier élément du bloc précédent (pagination par clé),
+ * et le bloc suivant est préchargé en arrière-plan pendant le parcours du bloc courant :
+ * au plus deux blocs sont en mémoire, quelle que soit la taille du catalogue.
+ */
+public class IterateurParBlocs<T> implements VehiculeIterator, Iterator<T> {
+
+    /** Source paginée par clé : les {@code taille} éléments qui suivent {@code dernier} (null : depuis le début). */
+    @FunctionalInterface
+    public interface Source<T> {
+        List<T> blocSuivant(T dernier, int taille);
+    }
+
+    private static final ExecutorService PRECHARGEMENT = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "iterateur-prechargement");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Source<T> source;
+    private final int taille;
+    private final Executor executor;
+
+    private List<T> bloc = Collections.emptyList();
+    private int position;
+    private boolean dernierBloc;
+    private CompletableFuture<List<T>> suivant;
+
+    public IterateurParBlocs(Source<T> source, int taille) {
+        this(source, taille, PRECHARGEMENT);
+    }
+
+    public IterateurParBlocs(Source<T> source, int taille, Executor executor) {
+        if (taille <= 0) {
+            throw new IllegalArgumentException("Taille de bloc invalide: " + taille);
+        }
+        this.source = source;
+        this.taille = taille;
+        this.executor = executor;
+        reset();
+    }
+
+    /** Parcours de la table vehicules, {@code taille} lignes par requête. */
+    public static IterateurParBlocs<Vehicule> depuis(VehiculeRepository repository, int taille) {
+        return new IterateurParBlocs<>((dernier, n) -> repository.findByIdGreaterThanOrderByIdAsc(
+            dernier != null ? dernier.getId() : 0L, PageRequest.of(0, n)), taille);
+    }
+
+    /**
+     * Parcours filtré de la table vehicules : tous les critères sont appliqués par la requête JPQL
+     * (type et énergie via le discriminant des sous-classes). Aucune classe retenue : aucune requête.
+     */
+    public static IterateurParBlocs<Vehicule> depuis(VehiculeRepository repository, CritereVehicule critere,
+                                                     int taille) {
+        List<Class<? extends Vehicule>> classes = critere.classes();
+        if (classes.isEmpty()) {
+            return new IterateurParBlocs<>((dernier, n) -> Collections.emptyList(), taille);
+        }
+        return new IterateurParBlocs<>((dernier, n) -> repository.rechercherApres(
+            dernier != null ? dernier.getId() : 0L, classes, critere.getPrixMin(),
+            critere.getPrixMax(), critere.getEnStock(), PageRequest.of(0, n)), taille);
+    }
+
+    /** Parcours d'un stock en mémoire trié par id, sans copie intégrale. */
+    public static IterateurParBlocs<Vehicule> depuis(NavigableMap<Long, Vehicule> vehicules, int taille) {
+        return new IterateurParBlocs<>((dernier, n) -> (dernier != null
+                ? vehicules.tailMap(dernier.getId(), false) : vehicules)
+            .values().stream().limit(n).collect(Collectors.toList()), taille);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < bloc.size()) {
+            return true;
+        }
+        if (dernierBloc) {
+            return false;
+        }
+        avancer();
+        return position < bloc.size();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return bloc.get(position++);
+    }
+
+    @Override
+    public void reset() {
+        if (suivant != null) {
+            suivant.cancel(false);
+        }
+        bloc = Collections.emptyList();
+        position = 0;
+        dernierBloc = false;
+        suivant = charger(null);
+    }
+
+    private void avancer() {
+        try {
+            bloc = suivant.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        position = 0;
+        // Un bloc incomplet est le dernier : inutile de faire une requête de plus
+        dernierBloc = bloc.size() < taille;
+        suivant = dernierBloc ? null : charger(bloc.get(bloc.size() - 1));
+    }
+
+    private CompletableFuture<List<T>> charger(T dernier) {
+        return CompletableFuture.supplyAsync(() -> source.blocSuivant(dernier, taille), executor);
+    }
+}
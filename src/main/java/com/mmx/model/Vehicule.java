@@ -40,6 +40,10 @@ public abstract class Vehicule {
     @Column(name = "date_ajout")
     private LocalDate dateAjout;
     
+    // Miniature servie par /api/images (l'original n'est pas envoyé aux pages catalogue)
+    @Column(name = "image_url")
+    private String imageUrl;
+    
     // Constructeur par défaut
     public Vehicule() {
         this.dateAjout = LocalDate.now();
@@ -126,6 +130,14 @@ public abstract class Vehicule {
         this.dateAjout = dateAjout;
     }
     
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
     // Méthodes abstraites
     public abstract String getType();
     
@@ -0,0 +1,124 @@
+package com.mmx.observer;
+
+import com.mmx.model.Vehicule;
+
+import java.time.Instant;
+
+/**
+ * Événement typé émis par le catalogue. Immuable : la même instance est livrée à tous les observateurs.
+ */
+public final class EvenementCatalogue {
+
+    public enum Type { VEHICULE_AJOUTE, PRIX_MODIFIE, VEHICULE_VENDU, RETOUR_EN_STOCK }
+
+    private final Type type;
+    private final String vehicule;
+    private final double ancienPrix;
+    private final double nouveauPrix;
+    private final Instant date;
+
+    // Caractéristiques du véhicule, connues seulement si l'événement vient d'un {@link Vehicule}
+    private final Long vehiculeId;
+    private final String marque;
+    private final String typeVehicule;
+    private final String couleur;
+
+    private EvenementCatalogue(Type type, String vehicule, double ancienPrix, double nouveauPrix) {
+        this(type, vehicule, ancienPrix, nouveauPrix, Instant.now(), null, null, null, null);
+    }
+
+    private EvenementCatalogue(Type type, String vehicule, double ancienPrix, double nouveauPrix, Instant date,
+                               Long vehiculeId, String marque, String typeVehicule, String couleur) {
+        this.type = type;
+        this.vehicule = vehicule;
+        this.ancienPrix = ancienPrix;
+        this.nouveauPrix = nouveauPrix;
+        this.date = date;
+        this.vehiculeId = vehiculeId;
+        this.marque = marque;
+        this.typeVehicule = typeVehicule;
+        this.couleur = couleur;
+    }
+
+    private static EvenementCatalogue depuis(Type type, Vehicule vehicule, double ancienPrix) {
+        return new EvenementCatalogue(type, vehicule.getMarque() + " " + vehicule.getModele(), ancienPrix,
+            vehicule.getPrix(), Instant.now(), vehicule.getId(), vehicule.getMarque(), vehicule.getType(),
+            vehicule.getCouleur());
+    }
+
+    public static EvenementCatalogue vehiculeAjoute(Vehicule vehicule) {
+        return depuis(Type.VEHICULE_AJOUTE, vehicule, vehicule.getPrix());
+    }
+
+    public static EvenementCatalogue prixModifie(Vehicule vehicule, double ancienPrix) {
+        return depuis(Type.PRIX_MODIFIE, vehicule, ancienPrix);
+    }
+
+    public static EvenementCatalogue vehiculeVendu(Vehicule vehicule) {
+        return depuis(Type.VEHICULE_VENDU, vehicule, vehicule.getPrix());
+    }
+
+    /** Véhicule de nouveau disponible après une rupture (réapprovisionnement). */
+    public static EvenementCatalogue retourEnStock(Vehicule vehicule) {
+        return depuis(Type.RETOUR_EN_STOCK, vehicule, vehicule.getPrix());
+    }
+
+    public static EvenementCatalogue vehiculeAjoute(String vehicule) {
+        return new EvenementCatalogue(Type.VEHICULE_AJOUTE, vehicule, 0, 0);
+    }
+
+    public static EvenementCatalogue prixModifie(String vehicule, double ancienPrix, double nouveauPrix) {
+        return new EvenementCatalogue(Type.PRIX_MODIFIE, vehicule, ancienPrix, nouveauPrix);
+    }
+
+    public static EvenementCatalogue vehiculeVendu(String vehicule) {
+        return new EvenementCatalogue(Type.VEHICULE_VENDU, vehicule, 0, 0);
+    }
+
+    public Type getType() { return type; }
+    public String getVehicule() { return vehicule; }
+    public double getAncienPrix() { return ancienPrix; }
+    public double getNouveauPrix() { return nouveauPrix; }
+    public Instant getDate() { return date; }
+    public Long getVehiculeId() { return vehiculeId; }
+    public String getMarque() { return marque; }
+    public String getTypeVehicule() { return typeVehicule; }
+    public String getCouleur() { return couleur; }
+
+    /** Vrai si l'événement vient d'un {@link Vehicule} : marque, type et couleur sont alors connus. */
+    public boolean isDecrit() {
+        return vehiculeId != null;
+    }
+
+    /** Identifiant servant à fusionner les changements d'un même véhicule. */
+    public String getCleVehicule() {
+        return vehiculeId != null ? "#" + vehiculeId : vehicule;
+    }
+
+    /** Baisse de prix, nouveau véhicule ou retour en stock : ce qui intéresse une alerte client. */
+    public boolean isOpportunite() {
+        return type == Type.VEHICULE_AJOUTE || type == Type.RETOUR_EN_STOCK
+            || (type == Type.PRIX_MODIFIE && nouveauPrix < ancienPrix);
+    }
+
+    /** Même changement, avec l'ancien prix d'un changement antérieur (fusion dans un lot). */
+    EvenementCatalogue depuisPrix(double prixInitial) {
+        return new EvenementCatalogue(type, vehicule, prixInitial, nouveauPrix, date,
+            vehiculeId, marque, typeVehicule, couleur);
+    }
+
+    /** Texte transmis aux observateurs qui n'implémentent que {@link Observer#update(String)}. */
+    public String getMessage() {
+        switch (type) {
+            case PRIX_MODIFIE:
+                return "Nouveau prix pour " + vehicule + ": " + String.format("%.2f", nouveauPrix)
+                    + " € (au lieu de " + String.format("%.2f", ancienPrix) + " €)";
+            case VEHICULE_VENDU:
+                return "Véhicule vendu: " + vehicule;
+            case RETOUR_EN_STOCK:
+                return "De nouveau en stock: " + vehicule;
+            default:
+                return "Nouveau véhicule disponible: " + vehicule;
+        }
+    }
+}
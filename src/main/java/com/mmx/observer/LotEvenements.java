@@ -0,0 +1,96 @@
+package com.mmx.observer;
+
+import java.util.*;
+
+/**
+ * Changements du catalogue regroupés sur une fenêtre de temps.
+ *
+ * Les événements d'un même type sur un même véhicule sont fusionnés : seul le dernier est gardé,
+ * et pour un changement de prix l'ancien prix reste celui d'avant le premier changement.
+ */
+public final class LotEvenements {
+
+    private final List<EvenementCatalogue> evenements;
+    private final Set<String> vehicules;
+    private final int nombreChangements;
+
+    private LotEvenements(List<EvenementCatalogue> evenements, Set<String> vehicules, int nombreChangements) {
+        this.evenements = evenements;
+        this.vehicules = vehicules;
+        this.nombreChangements = nombreChangements;
+    }
+
+    /**
+     * Événements fusionnés, dans l'ordre de leur dernier changement : le dernier événement
+     * d'un véhicule dans le lot reflète son état final (vendu après un retour en stock, par exemple).
+     */
+    public List<EvenementCatalogue> getEvenements() { return evenements; }
+    /** Véhicules concernés par au moins un changement. */
+    public Set<String> getVehicules() { return vehicules; }
+    /** Nombre de changements reçus avant fusion. */
+    public int getNombreChangements() { return nombreChangements; }
+
+    public String getMessage() {
+        if (evenements.size() == 1) {
+            return evenements.get(0).getMessage();
+        }
+        return vehicules.size() + " véhicules modifiés (" + nombreChangements + " changements)";
+    }
+
+    /** Accumulateur d'un lot ; non synchronisé, protégé par son propriétaire. */
+    static final class Accumulateur {
+        private final Map<String, EvenementCatalogue> parCle = new LinkedHashMap<>();
+        private int nombreChangements;
+
+        /** @return true si c'est le premier changement du lot */
+        boolean ajouter(EvenementCatalogue evenement) {
+            String cle = cle(evenement);
+            // Retiré puis remis : l'événement fusionné prend la place de son dernier changement
+            EvenementCatalogue precedent = parCle.remove(cle);
+            parCle.put(cle, precedent != null ? fusionner(precedent, evenement) : evenement);
+            return nombreChangements++ == 0;
+        }
+
+        /** @return true si l'événement tient dans un lot de {@code capacite} événements fusionnés */
+        boolean accepte(EvenementCatalogue evenement, int capacite) {
+            return parCle.size() < capacite || parCle.containsKey(cle(evenement));
+        }
+
+        /** Abandonne l'événement fusionné le plus ancien du lot. */
+        void retirerPlusAncien() {
+            Iterator<EvenementCatalogue> iterateur = parCle.values().iterator();
+            if (iterateur.hasNext()) {
+                iterateur.next();
+                iterateur.remove();
+            }
+        }
+
+        boolean estVide() {
+            return parCle.isEmpty();
+        }
+
+        private static String cle(EvenementCatalogue evenement) {
+            return evenement.getType() + ":" + evenement.getCleVehicule();
+        }
+
+        LotEvenements extraire() {
+            List<EvenementCatalogue> liste = new ArrayList<>(parCle.values());
+            Set<String> vehicules = new LinkedHashSet<>();
+            for (EvenementCatalogue evenement : liste) {
+                vehicules.add(evenement.getVehicule());
+            }
+            LotEvenements lot = new LotEvenements(Collections.unmodifiableList(liste),
+                Collections.unmodifiableSet(vehicules), nombreChangements);
+            parCle.clear();
+            nombreChangements = 0;
+            return lot;
+        }
+    }
+
+    private static EvenementCatalogue fusionner(EvenementCatalogue precedent, EvenementCatalogue suivant) {
+        if (suivant.getType() == EvenementCatalogue.Type.PRIX_MODIFIE) {
+            return suivant.depuisPrix(precedent.getAncienPrix());
+        }
+        return suivant;
+    }
+}
@@ -0,0 +1,167 @@
+package com.mmx.observer;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Rapprochement des changements du catalogue avec les alertes des clients.
+ *
+ * Les alertes sont indexées par marque, puis type, puis couleur (un critère absent est rangé
+ * sous {@link #TOUS}), et enfin triées par prix maximum. Pour un véhicule donné, seules les
+ * 8 combinaisons (valeur ou TOUS pour chaque critère) sont consultées, et dans chacune on ne
+ * parcourt que les alertes dont le prix maximum est atteint : le coût dépend du nombre
+ * d'alertes déclenchées, pas du nombre d'alertes enregistrées.
+ */
+public class MoteurAlertes implements Observer {
+
+    private static final String TOUS = "*";
+
+    /** marque -> type -> couleur -> prix maximum -> alertes */
+    private final Map<String, Map<String, Map<String, ConcurrentNavigableMap<Double, Set<Alerte>>>>> index =
+        new ConcurrentHashMap<>();
+    private final Map<Long, Alerte> parId = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final BiConsumer<Alerte, EvenementCatalogue> notification;
+
+    public MoteurAlertes() {
+        this((alerte, evenement) -> System.out.println(
+            "Alerte pour " + alerte.getClient() + ": " + evenement.getMessage()));
+    }
+
+    /** @param notification appelée pour chaque alerte déclenchée */
+    public MoteurAlertes(BiConsumer<Alerte, EvenementCatalogue> notification) {
+        this.notification = notification;
+    }
+
+    /** Marque, type, couleur et prix maximum sont facultatifs (null : indifférent). */
+    public Alerte ajouter(String client, String marque, String type, String couleur, Double prixMax) {
+        Alerte alerte = new Alerte(sequence.incrementAndGet(), client, marque, type, couleur, prixMax);
+        parId.put(alerte.getId(), alerte);
+        seuils(alerte, true).computeIfAbsent(alerte.getPrixMax(), p -> ConcurrentHashMap.newKeySet()).add(alerte);
+        return alerte;
+    }
+
+    public boolean supprimer(long id) {
+        Alerte alerte = parId.remove(id);
+        if (alerte == null) {
+            return false;
+        }
+        ConcurrentNavigableMap<Double, Set<Alerte>> seuils = seuils(alerte, false);
+        if (seuils != null) {
+            Set<Alerte> alertes = seuils.get(alerte.getPrixMax());
+            if (alertes != null) {
+                alertes.remove(alerte);
+            }
+        }
+        return true;
+    }
+
+    public int getNombreAlertes() {
+        return parId.size();
+    }
+
+    public List<Alerte> getAlertes() {
+        return new ArrayList<>(parId.values());
+    }
+
+    /** Alertes satisfaites par le véhicule de l'événement. */
+    public List<Alerte> rechercher(EvenementCatalogue evenement) {
+        List<Alerte> resultat = new ArrayList<>();
+        for (String marque : cles(evenement.getMarque())) {
+            Map<String, Map<String, ConcurrentNavigableMap<Double, Set<Alerte>>>> parType = index.get(marque);
+            if (parType == null) {
+                continue;
+            }
+            for (String type : cles(evenement.getTypeVehicule())) {
+                Map<String, ConcurrentNavigableMap<Double, Set<Alerte>>> parCouleur = parType.get(type);
+                if (parCouleur == null) {
+                    continue;
+                }
+                for (String couleur : cles(evenement.getCouleur())) {
+                    ConcurrentNavigableMap<Double, Set<Alerte>> seuils = parCouleur.get(couleur);
+                    if (seuils != null) {
+                        // Seuls les prix maximum supérieurs ou égaux au prix du véhicule sont parcourus
+                        for (Set<Alerte> alertes : seuils.tailMap(evenement.getNouveauPrix(), true).values()) {
+                            resultat.addAll(alertes);
+                        }
+                    }
+                }
+            }
+        }
+        return resultat;
+    }
+
+    @Override
+    public void update(String message) {
+        // Un message seul ne décrit pas le véhicule : rien à rapprocher
+    }
+
+    /** Les événements sans caractéristiques de véhicule (catalogue de démonstration) sont ignorés. */
+    @Override
+    public void onEvenement(EvenementCatalogue evenement) {
+        if (evenement.isDecrit() && evenement.isOpportunite()) {
+            for (Alerte alerte : rechercher(evenement)) {
+                notification.accept(alerte, evenement);
+            }
+        }
+    }
+
+    /** Un véhicule vendu plus loin dans le lot ne déclenche pas d'alerte pour un changement antérieur. */
+    @Override
+    public void onLot(LotEvenements lot) {
+        List<EvenementCatalogue> evenements = lot.getEvenements();
+        Set<String> vendus = new HashSet<>();
+        List<EvenementCatalogue> retenus = new ArrayList<>(evenements.size());
+        for (int i = evenements.size() - 1; i >= 0; i--) {
+            EvenementCatalogue evenement = evenements.get(i);
+            if (evenement.getType() == EvenementCatalogue.Type.VEHICULE_VENDU) {
+                vendus.add(evenement.getCleVehicule());
+            } else if (!vendus.contains(evenement.getCleVehicule())) {
+                retenus.add(evenement);
+            }
+        }
+        for (int i = retenus.size() - 1; i >= 0; i--) {
+            onEvenement(retenus.get(i));
+        }
+    }
+
+    private ConcurrentNavigableMap<Double, Set<Alerte>> seuils(Alerte alerte, boolean creer) {
+        String marque = cle(alerte.getMarque());
+        String type = cle(alerte.getType());
+        String couleur = cle(alerte.getCouleur());
+        if (!creer) {
+            Map<String, Map<String, ConcurrentNavigableMap<Double, Set<Alerte>>>> parType = index.get(marque);
+            Map<String, ConcurrentNavigableMap<Double, Set<Alerte>>> parCouleur = parType != null ? parType.get(type) : null;
+            return parCouleur != null ? parCouleur.get(couleur) : null;
+        }
+        return index.computeIfAbsent(marque, m -> new ConcurrentHashMap<>())
+            .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+            .computeIfAbsent(couleur, c -> new ConcurrentSkipListMap<>());
+    }
+
+    /** Clés à consulter pour une valeur du véhicule : la valeur elle-même et TOUS. */
+    private static String[] cles(String valeur) {
+        return valeur == null ? new String[] { TOUS } : new String[] { normaliser(valeur), TOUS };
+    }
+
+    private static String cle(String critere) {
+        return critere == null || critere.isBlank() ? TOUS : normaliser(critere);
+    }
+
+    /** « Scooter Électrique » et « scooter electrique » désignent le même type. */
+    private static String normaliser(String valeur) {
+        return Normalizer.normalize(valeur.trim(), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,7 @@
 package com.mmx.pdf;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Service pour générer des PDF de factures
@@ -9,4 +10,12 @@ import java.io.IOException;
 public interface InvoicePDFService {
     byte[] generateInvoicePDF(Invoice invoice) throws IOException;
     String getPDFMetadata(Invoice invoice);
+    
+    /**
+     * Écrit le PDF directement dans le flux fourni (réponse HTTP, archive...),
+     * sans passer par un tableau d'octets intermédiaire. Le flux n'est pas fermé.
+     */
+    default void writeInvoicePDF(Invoice invoice, OutputStream out) throws IOException {
+        out.write(generateInvoicePDF(invoice));
+    }
 }
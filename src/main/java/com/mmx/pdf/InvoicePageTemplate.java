@@ -0,0 +1,156 @@
+package com.mmx.pdf;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fond de page d'une facture (bandeau, en-têtes de colonnes, filigrane...).
+ *
+ * Le fond est dessiné une seule fois dans un document brouillon ; seuls les
+ * opérateurs du flux de contenu sont conservés, puis recopiés dans chaque
+ * nouveau document sous forme de Form XObject.
+ */
+final class InvoicePageTemplate {
+    
+    static final PDFont FONT = PDType1Font.HELVETICA;
+    static final PDFont FONT_BOLD = PDType1Font.HELVETICA_BOLD;
+    
+    static final float MARGIN = 50;
+    static final float TABLE_TOP = 560;
+    static final float TABLE_BOTTOM = 220;
+    static final float COL_QUANTITY = 330;
+    static final float COL_UNIT_PRICE = 440;
+    static final float COL_TOTAL = 545;
+    
+    private static final Color BRAND = new Color(30, 64, 175);
+    
+    private final byte[] content;
+    private final Map<COSName, PDFont> fonts;
+    
+    private InvoicePageTemplate(byte[] content, Map<COSName, PDFont> fonts) {
+        this.content = content;
+        this.fonts = fonts;
+    }
+    
+    static InvoicePageTemplate creer(boolean logoVectoriel, String watermark) throws IOException {
+        try (PDDocument brouillon = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            brouillon.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(brouillon, page)) {
+                dessinerFond(cs, logoVectoriel, watermark);
+            }
+            
+            byte[] content;
+            try (InputStream in = page.getContents()) {
+                content = in.readAllBytes();
+            }
+            // Les polices standard (Type 1) ne sont pas embarquées : on réassocie
+            // chaque nom de ressource à l'instance partagée correspondante.
+            Map<COSName, PDFont> fonts = new HashMap<>();
+            PDResources resources = page.getResources();
+            for (COSName name : resources.getFontNames()) {
+                PDFont font = resources.getFont(name);
+                fonts.put(name, FONT_BOLD.getName().equals(font.getName()) ? FONT_BOLD : FONT);
+            }
+            return new InvoicePageTemplate(content, fonts);
+        }
+    }
+    
+    /**
+     * Copie le fond dans le document cible (une fois par document, réutilisé sur chaque page).
+     */
+    PDFormXObject importer(PDDocument document) throws IOException {
+        PDFormXObject form = new PDFormXObject(document);
+        try (OutputStream out = form.getContentStream().createOutputStream(COSName.FLATE_DECODE)) {
+            out.write(content);
+        }
+        PDResources resources = new PDResources();
+        fonts.forEach(resources::put);
+        form.setResources(resources);
+        form.setBBox(PDRectangle.A4);
+        return form;
+    }
+    
+    private static void dessinerFond(PDPageContentStream cs, boolean logoVectoriel, String watermark) throws IOException {
+        float largeur = PDRectangle.A4.getWidth();
+        float hauteur = PDRectangle.A4.getHeight();
+        
+        if (watermark != null && !watermark.isEmpty()) {
+            cs.saveGraphicsState();
+            cs.setNonStrokingColor(new Color(225, 225, 225));
+            cs.beginText();
+            cs.setFont(FONT_BOLD, 72);
+            cs.setTextMatrix(Matrix.getRotateInstance(Math.toRadians(45), 140, 250));
+            cs.showText(PDFBoxAdapter.pdfSafe(watermark));
+            cs.endText();
+            cs.restoreGraphicsState();
+        }
+        
+        // Bandeau d'en-tête
+        cs.setNonStrokingColor(BRAND);
+        cs.addRect(0, hauteur - 90, largeur, 90);
+        cs.fill();
+        if (logoVectoriel) {
+            cs.setNonStrokingColor(Color.WHITE);
+            cs.addRect(MARGIN, hauteur - 75, 60, 60);
+            cs.fill();
+            cs.setNonStrokingColor(BRAND);
+            texte(cs, FONT_BOLD, 22, MARGIN + 6, hauteur - 53, "MMX");
+        }
+        cs.setNonStrokingColor(Color.WHITE);
+        float xTitre = logoVectoriel || PDFResourcePool.getInstance().hasLogoImage() ? MARGIN + 75 : MARGIN;
+        texte(cs, FONT_BOLD, 20, xTitre, hauteur - 50, "MMX Véhicules");
+        texte(cs, FONT, 10, xTitre, hauteur - 67, "Vente de véhicules neufs et d'occasion");
+        texte(cs, FONT_BOLD, 26, largeur - MARGIN - FONT_BOLD.getStringWidth("FACTURE") / 1000 * 26,
+              hauteur - 55, "FACTURE");
+        
+        // En-têtes du tableau des articles
+        cs.setNonStrokingColor(Color.BLACK);
+        texte(cs, FONT_BOLD, 10, MARGIN, TABLE_TOP + 8, "Description");
+        texteDroite(cs, FONT_BOLD, 10, COL_QUANTITY, TABLE_TOP + 8, "Quantité");
+        texteDroite(cs, FONT_BOLD, 10, COL_UNIT_PRICE, TABLE_TOP + 8, "Prix unit.");
+        texteDroite(cs, FONT_BOLD, 10, COL_TOTAL, TABLE_TOP + 8, "Total");
+        cs.setStrokingColor(BRAND);
+        cs.setLineWidth(1f);
+        cs.moveTo(MARGIN, TABLE_TOP);
+        cs.lineTo(largeur - MARGIN, TABLE_TOP);
+        cs.stroke();
+        
+        // Séparateur du pied de page
+        cs.setStrokingColor(Color.LIGHT_GRAY);
+        cs.setLineWidth(0.5f);
+        cs.moveTo(MARGIN, 60);
+        cs.lineTo(largeur - MARGIN, 60);
+        cs.stroke();
+    }
+    
+    static void texte(PDPageContentStream cs, PDFont font, float taille, float x, float y, String texte)
+            throws IOException {
+        cs.beginText();
+        cs.setFont(font, taille);
+        cs.newLineAtOffset(x, y);
+        cs.showText(PDFBoxAdapter.pdfSafe(texte));
+        cs.endText();
+    }
+    
+    static void texteDroite(PDPageContentStream cs, PDFont font, float taille, float xDroite, float y, String texte)
+            throws IOException {
+        String sur = PDFBoxAdapter.pdfSafe(texte);
+        texte(cs, font, taille, xDroite - font.getStringWidth(sur) / 1000 * taille, y, sur);
+    }
+}
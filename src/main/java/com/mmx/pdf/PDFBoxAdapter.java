@@ -1,61 +1,180 @@
 package com.mmx.pdf;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 
+import static com.mmx.pdf.InvoicePageTemplate.*;
+
 /**
  * Implémentation avec Apache PDFBox (Adapter Pattern) - Classe publique
+ *
+ * Le fond de page, les polices et le logo sont partagés via {@link PDFResourcePool} ;
+ * seul le contenu propre à la facture est dessiné pour chaque document.
  */
 public class PDFBoxAdapter implements InvoicePDFService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(Locale.FRANCE);
+    // NumberFormat n'est pas thread-safe : une instance par thread
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMAT =
+        ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.FRANCE));
+    
+    private static final float ROW_HEIGHT = 18;
+    private static final String DEFAULT_FOOTER = "MMX Véhicules - Votre partenaire automobile";
+    
+    private final boolean includeLogo;
+    private final boolean includeQRCode;
+    private final String footerText;
+    private final String watermark;
+    
+    public PDFBoxAdapter() {
+        this(false, false, DEFAULT_FOOTER, null);
+    }
+    
+    public PDFBoxAdapter(boolean includeLogo, boolean includeQRCode, String footerText, String watermark) {
+        this.includeLogo = includeLogo;
+        this.includeQRCode = includeQRCode;
+        this.footerText = footerText != null ? footerText : DEFAULT_FOOTER;
+        this.watermark = watermark;
+    }
     
     @Override
     public byte[] generateInvoicePDF(Invoice invoice) throws IOException {
-        // Pour l'instant, retournons un PDF simulé
-        // Dans une vraie implémentation, vous utiliseriez PDFBox
-        
-        String pdfContent = generateSimulatedPDF(invoice);
-        return pdfContent.getBytes();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        writeInvoicePDF(invoice, out);
+        return out.toByteArray();
     }
     
-    private String generateSimulatedPDF(Invoice invoice) {
-        StringBuilder pdf = new StringBuilder();
-        
-        pdf.append("=== FACTURE ===\n\n");
-        pdf.append("Facture N°: ").append(invoice.getInvoiceNumber()).append("\n");
-        pdf.append("Date: ").append(invoice.getInvoiceDate().format(DATE_FORMATTER)).append("\n\n");
-        
-        pdf.append("CLIENT:\n");
-        pdf.append(invoice.getClientName()).append("\n");
-        pdf.append(invoice.getClientAddress()).append("\n\n");
-        
-        pdf.append("ARTICLES:\n");
-        pdf.append(String.format("%-40s %-10s %-15s %-15s\n", 
-            "Description", "Quantité", "Prix unit.", "Total"));
-        pdf.append("-".repeat(80)).append("\n");
+    @Override
+    public void writeInvoicePDF(Invoice invoice, OutputStream out) throws IOException {
+        PDFResourcePool pool = PDFResourcePool.getInstance();
+        InvoicePageTemplate template = pool.getInvoiceTemplate(includeLogo, watermark);
         
-        for (InvoiceItem item : invoice.getItems()) {
-            pdf.append(String.format("%-40s %-10d %-15s %-15s\n",
-                item.getDescription().length() > 40 ? item.getDescription().substring(0, 37) + "..." : item.getDescription(),
-                item.getQuantity(),
-                CURRENCY_FORMAT.format(item.getUnitPrice()),
-                CURRENCY_FORMAT.format(item.getTotalPrice())));
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation info = document.getDocumentInformation();
+            info.setTitle("Facture " + invoice.getInvoiceNumber());
+            info.setAuthor("MMX Véhicules");
+            info.setCreator("MMX Véhicules");
+            info.setCreationDate(Calendar.getInstance());
+            
+            PDFormXObject fond = template.importer(document);
+            PDImageXObject logo = includeLogo && pool.hasLogoImage()
+                ? JPEGFactory.createFromByteArray(document, pool.getLogoJpeg())
+                : null;
+            
+            List<InvoiceItem> items = invoice.getItems() != null ? invoice.getItems() : Collections.emptyList();
+            int index = 0;
+            int pageNumber = 0;
+            do {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                pageNumber++;
+                
+                try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                    cs.drawForm(fond);
+                    if (logo != null) {
+                        cs.drawImage(logo, MARGIN, PDRectangle.A4.getHeight() - 75, 60, 60);
+                    }
+                    if (pageNumber == 1) {
+                        drawHeader(cs, invoice);
+                    }
+                    
+                    float y = TABLE_TOP - ROW_HEIGHT;
+                    while (index < items.size() && y >= TABLE_BOTTOM) {
+                        drawItem(cs, items.get(index++), y);
+                        y -= ROW_HEIGHT;
+                    }
+                    if (index >= items.size()) {
+                        drawTotals(cs, invoice);
+                        if (includeQRCode) {
+                            drawVerificationBlock(cs, invoice);
+                        }
+                    }
+                    drawFooter(cs, pageNumber);
+                }
+            } while (index < items.size());
+            
+            // PDDocument.save ferme le flux : on protège le flux de l'appelant (réponse HTTP, ZIP...)
+            document.save(new NonClosingOutputStream(out));
+        }
+    }
+    
+    private void drawHeader(PDPageContentStream cs, Invoice invoice) throws IOException {
+        float top = PDRectangle.A4.getHeight() - 130;
+        cs.setNonStrokingColor(Color.BLACK);
+        texte(cs, FONT_BOLD, 12, MARGIN, top, "Facture N° : " + invoice.getInvoiceNumber());
+        texte(cs, FONT, 10, MARGIN, top - 16, "Date : " + formatDate(invoice.getInvoiceDate()));
+        if (invoice.getStatus() != null) {
+            texte(cs, FONT, 10, MARGIN, top - 30, "Statut : " + invoice.getStatus());
         }
         
-        pdf.append("\n");
-        pdf.append(String.format("%65s %-15s\n", "Sous-total:", CURRENCY_FORMAT.format(invoice.getSubTotal())));
-        pdf.append(String.format("%65s %-15s\n", "Taxes (" + invoice.getTaxRate() + "%):", CURRENCY_FORMAT.format(invoice.getTaxAmount())));
-        pdf.append(String.format("%65s %-15s\n", "TOTAL:", CURRENCY_FORMAT.format(invoice.getTotalAmount())));
-        
-        pdf.append("\n\nFacture générée automatiquement par MMX Véhicules\n");
-        pdf.append("Date de génération: ").append(LocalDate.now().format(DATE_FORMATTER));
-        
-        return pdf.toString();
+        float xClient = 330;
+        float largeurClient = PDRectangle.A4.getWidth() - MARGIN - xClient;
+        texte(cs, FONT_BOLD, 10, xClient, top, "CLIENT");
+        texte(cs, FONT, 10, xClient, top - 16, truncate(invoice.getClientName(), FONT, 10, largeurClient));
+        texte(cs, FONT, 10, xClient, top - 30, truncate(invoice.getClientAddress(), FONT, 10, largeurClient));
+    }
+    
+    private void drawItem(PDPageContentStream cs, InvoiceItem item, float y) throws IOException {
+        NumberFormat currency = CURRENCY_FORMAT.get();
+        texte(cs, FONT, 9, MARGIN, y, truncate(item.getDescription(), FONT, 9, COL_QUANTITY - MARGIN - 60));
+        texteDroite(cs, FONT, 9, COL_QUANTITY, y, String.valueOf(item.getQuantity()));
+        texteDroite(cs, FONT, 9, COL_UNIT_PRICE, y, currency.format(item.getUnitPrice()));
+        texteDroite(cs, FONT, 9, COL_TOTAL, y, currency.format(item.getTotalPrice()));
+    }
+    
+    private void drawTotals(PDPageContentStream cs, Invoice invoice) throws IOException {
+        NumberFormat currency = CURRENCY_FORMAT.get();
+        float y = TABLE_BOTTOM - 30;
+        texteDroite(cs, FONT, 10, COL_UNIT_PRICE, y, "Sous-total :");
+        texteDroite(cs, FONT, 10, COL_TOTAL, y, currency.format(invoice.getSubTotal()));
+        texteDroite(cs, FONT, 10, COL_UNIT_PRICE, y - 16, "Taxes (" + invoice.getTaxRate() + "%) :");
+        texteDroite(cs, FONT, 10, COL_TOTAL, y - 16, currency.format(invoice.getTaxAmount()));
+        texteDroite(cs, FONT_BOLD, 12, COL_UNIT_PRICE, y - 36, "TOTAL :");
+        texteDroite(cs, FONT_BOLD, 12, COL_TOTAL, y - 36, currency.format(invoice.getTotalAmount()));
+    }
+    
+    /**
+     * Bloc de vérification (option QR code) : empreinte courte de la facture.
+     * Aucune bibliothèque de QR code n'est disponible, l'empreinte est donc imprimée en clair.
+     */
+    private void drawVerificationBlock(PDPageContentStream cs, Invoice invoice) throws IOException {
+        float y = TABLE_BOTTOM - 95;
+        cs.setStrokingColor(Color.DARK_GRAY);
+        cs.setLineWidth(0.5f);
+        cs.addRect(MARGIN, y, 190, 55);
+        cs.stroke();
+        texte(cs, FONT_BOLD, 9, MARGIN + 8, y + 38, "Code de vérification");
+        texte(cs, FONT_BOLD, 14, MARGIN + 8, y + 18, verificationCode(invoice));
+        texte(cs, FONT, 7, MARGIN + 8, y + 6, "À communiquer au service comptabilité MMX");
+    }
+    
+    private void drawFooter(PDPageContentStream cs, int pageNumber) throws IOException {
+        cs.setNonStrokingColor(Color.DARK_GRAY);
+        texte(cs, FONT, 8, MARGIN, 45, footerText);
+        texte(cs, FONT, 8, MARGIN, 33, "Facture générée automatiquement le " + LocalDate.now().format(DATE_FORMATTER));
+        texteDroite(cs, FONT, 8, PDRectangle.A4.getWidth() - MARGIN, 45, "Page " + pageNumber);
     }
     
     @Override
@@ -65,4 +184,81 @@ public class PDFBoxAdapter implements InvoicePDFService {
             invoice.getClientName().replaceAll("\\s+", "_"),
             invoice.getInvoiceDate().format(DateTimeFormatter.ofPattern("yyyyMMdd")));
     }
+    
+    private static String formatDate(LocalDate date) {
+        return date != null ? date.format(DATE_FORMATTER) : "";
+    }
+    
+    private static String truncate(String text, PDFont font, float size, float maxWidth) throws IOException {
+        String safe = pdfSafe(text);
+        if (font.getStringWidth(safe) / 1000 * size <= maxWidth) {
+            return safe;
+        }
+        int end = safe.length();
+        while (end > 0 && font.getStringWidth(safe.substring(0, end) + "...") / 1000 * size > maxWidth) {
+            end--;
+        }
+        return safe.substring(0, end) + "...";
+    }
+    
+    private static String verificationCode(Invoice invoice) {
+        String source = invoice.getInvoiceNumber() + "|" + invoice.getTotalAmount() + "|" + invoice.getInvoiceDate();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder code = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                if (i > 0 && i % 2 == 0) {
+                    code.append('-');
+                }
+                code.append(String.format("%02X", hash[i]));
+            }
+            return code.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+    
+    /**
+     * Les polices standard PDF sont limitées à l'encodage WinAnsi :
+     * espaces insécables (formats monétaires français) et caractères hors jeu sont remplacés.
+     */
+    static String pdfSafe(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char replacement = c;
+            if (c == '\u00A0' || c == '\u202F' || c == '\t') {
+                replacement = ' ';
+            } else if (c < 0x20 || (c > 0xFF && "€‘’“”–—…•œŒŠšŽžŸ".indexOf(c) < 0) || (c >= 0x7F && c < 0xA0)) {
+                replacement = '?';
+            }
+            if (replacement != c && sb == null) {
+                sb = new StringBuilder(text.length());
+                sb.append(text, 0, i);
+            }
+            if (sb != null) {
+                sb.append(replacement);
+            }
+        }
+        return sb != null ? sb.toString() : text;
+    }
+    
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
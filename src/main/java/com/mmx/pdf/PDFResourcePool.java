@@ -0,0 +1,105 @@
+package com.mmx.pdf;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ressources PDF partagées entre tous les documents générés :
+ * logo chargé (et converti en JPEG) une seule fois, fonds de page pré-rendus par variante.
+ *
+ * Accès sans verrou via l'idiome du holder.
+ */
+public final class PDFResourcePool {
+    
+    private static final String LOGO_JPEG = "/pdf/logo.jpg";
+    private static final String LOGO_PNG = "/pdf/logo.png";
+    
+    private final byte[] logoJpeg;
+    private final Map<String, InvoicePageTemplate> templates = new ConcurrentHashMap<>();
+    
+    private PDFResourcePool() {
+        this.logoJpeg = chargerLogo();
+    }
+    
+    private static class Holder {
+        private static final PDFResourcePool INSTANCE = new PDFResourcePool();
+    }
+    
+    public static PDFResourcePool getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Logo au format JPEG (intégré tel quel dans chaque PDF, sans ré-encodage),
+     * ou null si aucun logo n'est présent dans le classpath.
+     */
+    public byte[] getLogoJpeg() {
+        return logoJpeg;
+    }
+    
+    public boolean hasLogoImage() {
+        return logoJpeg != null;
+    }
+    
+    /**
+     * Fond de page de facture pour une combinaison d'options, rendu une seule fois.
+     */
+    InvoicePageTemplate getInvoiceTemplate(boolean includeLogo, String watermark) throws IOException {
+        boolean logoVectoriel = includeLogo && !hasLogoImage();
+        String cle = logoVectoriel + "|" + (watermark != null ? watermark : "");
+        try {
+            return templates.computeIfAbsent(cle, k -> {
+                try {
+                    return InvoicePageTemplate.creer(logoVectoriel, watermark);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static byte[] chargerLogo() {
+        try (InputStream jpeg = PDFResourcePool.class.getResourceAsStream(LOGO_JPEG)) {
+            if (jpeg != null) {
+                return jpeg.readAllBytes();
+            }
+        } catch (IOException e) {
+            System.out.println("Logo JPEG illisible : " + e.getMessage());
+        }
+        
+        try (InputStream png = PDFResourcePool.class.getResourceAsStream(LOGO_PNG)) {
+            if (png == null) {
+                return null;
+            }
+            BufferedImage source = ImageIO.read(png);
+            if (source == null) {
+                return null;
+            }
+            // Conversion unique en JPEG RVB : PDFBox peut alors l'intégrer sans décodage
+            BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            try {
+                g.setColor(java.awt.Color.WHITE);
+                g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+                g.drawImage(source, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(rgb, "jpg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            System.out.println("Logo PNG illisible : " + e.getMessage());
+            return null;
+        }
+    }
+}
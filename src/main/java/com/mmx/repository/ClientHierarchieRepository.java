@@ -0,0 +1,103 @@
+package com.mmx.repository;
+
+import com.mmx.composite.NoeudClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Accès à la hiérarchie société mère / filiales de la table clients.
+ * Le chargement complet se fait en un seul aller-retour grâce à une CTE récursive.
+ */
+@Repository
+public class ClientHierarchieRepository {
+    
+    // Les lignes sont triées par niveau : une société mère précède toujours ses filiales
+    private static final String SQL_HIERARCHIE =
+        "WITH RECURSIVE hierarchie AS (" +
+        "  SELECT id, nom, email, telephone, type_client, secteur_activite, nombre_employes," +
+        "         societe_mere_id, created_at, 0 AS niveau" +
+        "  FROM clients WHERE societe_mere_id IS NULL" +
+        "  UNION ALL" +
+        "  SELECT c.id, c.nom, c.email, c.telephone, c.type_client, c.secteur_activite, c.nombre_employes," +
+        "         c.societe_mere_id, c.created_at, h.niveau + 1" +
+        "  FROM clients c JOIN hierarchie h ON c.societe_mere_id = h.id" +
+        ") SELECT * FROM hierarchie ORDER BY niveau, id";
+    
+    private static final String SQL_INSERT =
+        "INSERT INTO clients (nom, email, telephone, type_client, secteur_activite, nombre_employes, societe_mere_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String SQL_UPDATE_SOCIETE_MERE =
+        "UPDATE clients SET societe_mere_id = ? WHERE id = ?";
+    
+    private static final String SQL_DELETE = "DELETE FROM clients WHERE id = ?";
+    
+    private static final RowMapper<NoeudClient> NOEUD_MAPPER = (rs, rowNum) -> {
+        long mere = rs.getLong("societe_mere_id");
+        Long societeMereId = rs.wasNull() ? null : mere;
+        NoeudClient noeud = new NoeudClient(
+            rs.getLong("id"),
+            rs.getString("nom"),
+            rs.getString("type_client"),
+            rs.getString("secteur_activite"),
+            rs.getInt("nombre_employes"),
+            societeMereId
+        );
+        noeud.setEmail(rs.getString("email"));
+        noeud.setTelephone(rs.getString("telephone"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        noeud.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        return noeud;
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ClientHierarchieRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Charge toute la hiérarchie, parents avant enfants.
+     */
+    public List<NoeudClient> chargerHierarchie() {
+        return jdbcTemplate.query(SQL_HIERARCHIE, NOEUD_MAPPER);
+    }
+    
+    public Long inserer(NoeudClient client) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, client.getNom());
+            ps.setString(2, client.getEmail());
+            ps.setString(3, client.getTelephone());
+            ps.setString(4, client.getTypeClient());
+            ps.setString(5, client.getSecteurActivite());
+            ps.setInt(6, client.getNombreEmployes());
+            if (client.getSocieteMereId() != null) {
+                ps.setLong(7, client.getSocieteMereId());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        return key != null ? key.longValue() : null;
+    }
+    
+    public void changerSocieteMere(Long clientId, Long societeMereId) {
+        jdbcTemplate.update(SQL_UPDATE_SOCIETE_MERE, societeMereId, clientId);
+    }
+    
+    public void supprimer(Long clientId) {
+        jdbcTemplate.update(SQL_DELETE, clientId);
+    }
+}
@@ -1,11 +1,13 @@
 package com.mmx.repository;
 
 import com.mmx.model.Vehicule;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +22,19 @@ public interface VehiculeRepository extends JpaRepository<Vehicule, Long> {
     // Méthodes de recherche supplémentaires
     List<Vehicule> findByModeleContainingIgnoreCase(String modele);
     List<Vehicule> findByMarqueContainingIgnoreCase(String marque);
+    
+    // Parcours par clé (keyset) : le bloc suivant repart du dernier id lu, sans OFFSET
+    List<Vehicule> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Même parcours avec les critères de recherche appliqués par la base ; TYPE(v) porte sur le
+    // discriminant type_vehicule des sous-classes entités. classes ne doit pas être vide.
+    @Query("SELECT v FROM Vehicule v WHERE v.id > :id AND TYPE(v) IN :classes " +
+           "AND v.prix BETWEEN :prixMin AND :prixMax " +
+           "AND (:enStock IS NULL OR v.enStock = :enStock) ORDER BY v.id")
+    List<Vehicule> rechercherApres(@Param("id") Long id,
+                                   @Param("classes") Collection<Class<? extends Vehicule>> classes,
+                                   @Param("prixMin") double prixMin,
+                                   @Param("prixMax") double prixMax,
+                                   @Param("enStock") Boolean enStock,
+                                   Pageable pageable);
 }
@@ -0,0 +1,189 @@
+package com.mmx.service;
+
+import com.mmx.dto.DocumentArchiveDTO;
+import com.mmx.repository.DocumentRepository;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Persistance des documents générés (liasses, factures) dans la table documents.
+ *
+ * Le document est d'abord écrit dans un fichier temporaire en calculant son empreinte,
+ * puis envoyé en base bloc par bloc s'il n'y est pas déjà : la mémoire utilisée est
+ * celle d'un bloc, quelle que soit la taille du document.
+ */
+@Service
+public class DocumentArchiveService {
+
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DocumentArchiveService(DocumentRepository documentRepository, TransactionTemplate transactionTemplate) {
+        this.documentRepository = documentRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public DocumentArchiveDTO archiver(String commandeReference, String typeDocument, String format,
+                                       String nomFichier, String typeMime,
+                                       DocumentCacheService.Producteur producteur) throws IOException {
+        Path temporaire = Files.createTempFile("mmx-archive", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaire)), sha256)) {
+                producteur.ecrire(out);
+            }
+            String empreinte = DocumentCacheService.hex(sha256.digest());
+            long taille = Files.size(temporaire);
+
+            DocumentArchiveDTO document = new DocumentArchiveDTO(null, commandeReference, typeDocument, format,
+                nomFichier, empreinte, taille, typeMime);
+            // Contenu et métadonnées dans la même transaction : un document visible a toujours tous ses blocs
+            return transactionTemplate.execute(status -> {
+                if (documentRepository.insererContenu(empreinte, taille, typeMime)) {
+                    ecrireBlocs(empreinte, temporaire);
+                }
+                return documentRepository.insererDocument(document);
+            });
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+    }
+
+    public DocumentArchiveDTO getDocument(long id) {
+        return documentRepository.trouverParId(id);
+    }
+
+    public List<DocumentArchiveDTO> getDocumentsCommande(String commandeReference) {
+        return documentRepository.trouverParCommande(commandeReference);
+    }
+
+    /**
+     * Contenu d'un document archivé, lu bloc par bloc à la demande.
+     * Spring sert les en-têtes Range à partir de cette ressource (réponses 206) ;
+     * les blocs précédant la plage demandée ne sont jamais lus.
+     */
+    public Resource ouvrir(DocumentArchiveDTO document) {
+        return new ContenuResource(document);
+    }
+
+    private void ecrireBlocs(String empreinte, Path fichier) {
+        byte[] bloc = new byte[DocumentRepository.TAILLE_BLOC];
+        try (InputStream in = Files.newInputStream(fichier)) {
+            int numero = 0;
+            int lus;
+            while ((lus = in.readNBytes(bloc, 0, bloc.length)) > 0) {
+                documentRepository.insererBloc(empreinte, numero++, bloc, lus);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private final class ContenuResource extends AbstractResource {
+        private final DocumentArchiveDTO document;
+
+        ContenuResource(DocumentArchiveDTO document) {
+            this.document = document;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new BlocsInputStream(document.getEmpreinte(), document.getTaille());
+        }
+
+        @Override
+        public long contentLength() {
+            return document.getTaille();
+        }
+
+        @Override
+        public String getFilename() {
+            return document.getNomFichier();
+        }
+
+        @Override
+        public String getDescription() {
+            return "Document archivé " + document.getId() + " [" + document.getEmpreinte() + "]";
+        }
+    }
+
+    /** Flux sur les blocs d'un contenu ; skip() saute les blocs sans les charger. */
+    private final class BlocsInputStream extends InputStream {
+        private final String empreinte;
+        private final long taille;
+        private long position;
+        private byte[] bloc;
+        private int numeroBloc = -1;
+
+        BlocsInputStream(String empreinte, long taille) {
+            this.empreinte = empreinte;
+            this.taille = taille;
+        }
+
+        @Override
+        public int read() {
+            if (position >= taille) {
+                return -1;
+            }
+            charger();
+            return bloc[(int) (position++ % DocumentRepository.TAILLE_BLOC)] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= taille) {
+                return -1;
+            }
+            charger();
+            int dansBloc = (int) (position % DocumentRepository.TAILLE_BLOC);
+            int n = Math.min(len, bloc.length - dansBloc);
+            System.arraycopy(bloc, dansBloc, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long saut = Math.max(0, Math.min(n, taille - position));
+            position += saut;
+            return saut;
+        }
+
+        @Override
+        public int available() {
+            if (bloc == null || position / DocumentRepository.TAILLE_BLOC != numeroBloc) {
+                return 0;
+            }
+            return bloc.length - (int) (position % DocumentRepository.TAILLE_BLOC);
+        }
+
+        private void charger() {
+            int numero = (int) (position / DocumentRepository.TAILLE_BLOC);
+            if (numero != numeroBloc) {
+                bloc = documentRepository.lireBloc(empreinte, numero);
+                numeroBloc = numero;
+            }
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.mmx.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache des documents générés (factures PDF, liasses), adressé par le contenu.
+ *
+ * La clé est l'empreinte SHA-256 du modèle d'entrée et des options de rendu :
+ * un document modifié produit une autre clé, il n'y a donc rien à invalider.
+ * Deux niveaux : un LRU en mémoire pour les petits documents, puis un répertoire
+ * sur disque servi tel quel : le fichier est renvoyé en {@link FileSystemResource}, que les
+ * contrôleurs transmettent par sendfile (sans re-rendu ni copie en espace utilisateur).
+ *
+ * Le rendu se fait hors de tout verrou ; une seule génération par clé, les requêtes
+ * concurrentes sur la même clé attendent son résultat. Le verrou de la clé (réparti sur
+ * {@link #NB_VERROUS}) ne protège que les opérations de fichier, toutes brèves. L'éviction
+ * épargne les fichiers servis ou écrits depuis moins de {@link #DELAI_GRACE_MS} ms : un
+ * document renvoyé au contrôleur reste sur le disque le temps que le connecteur l'ouvre.
+ */
+@Service
+public class DocumentCacheService {
+
+    /** Écrit le document à mettre en cache. */
+    @FunctionalInterface
+    public interface Producteur {
+        void ecrire(OutputStream out) throws IOException;
+    }
+
+    private static final int NB_VERROUS = 64;
+    private static final long DELAI_GRACE_MS = 60_000;
+
+    private final Path repertoire;
+    private final long tailleMaxDisque;
+    private final long tailleMaxMemoire;
+    private final int tailleMaxEntreeMemoire;
+
+    private final Map<String, byte[]> memoire = new LinkedHashMap<>(64, 0.75f, true);
+    private long tailleMemoire;
+    private final AtomicLong tailleDisque = new AtomicLong();
+    private final Object[] verrous = new Object[NB_VERROUS];
+    private final Map<String, CompletableFuture<byte[]>> enCours = new ConcurrentHashMap<>();
+
+    private final AtomicLong succesMemoire = new AtomicLong();
+    private final AtomicLong succesDisque = new AtomicLong();
+    private final AtomicLong generations = new AtomicLong();
+
+    public DocumentCacheService(
+            @Value("${mmx.documents.cache.dir:${java.io.tmpdir}/mmx-documents}") String repertoire,
+            @Value("${mmx.documents.cache.disk-max-mb:512}") long disqueMaxMo,
+            @Value("${mmx.documents.cache.memory-max-mb:32}") long memoireMaxMo,
+            @Value("${mmx.documents.cache.memory-entry-max-kb:256}") int entreeMaxKo) throws IOException {
+        this.repertoire = Paths.get(repertoire);
+        this.tailleMaxDisque = disqueMaxMo * 1024 * 1024;
+        this.tailleMaxMemoire = memoireMaxMo * 1024 * 1024;
+        this.tailleMaxEntreeMemoire = entreeMaxKo * 1024;
+        for (int i = 0; i < NB_VERROUS; i++) {
+            verrous[i] = new Object();
+        }
+
+        Files.createDirectories(this.repertoire);
+        try (Stream<Path> fichiers = Files.list(this.repertoire)) {
+            for (Path fichier : (Iterable<Path>) fichiers::iterator) {
+                if (fichier.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(fichier); // écriture interrompue lors d'un arrêt précédent
+                } else {
+                    tailleDisque.addAndGet(Files.size(fichier));
+                }
+            }
+        }
+    }
+
+    /**
+     * Retourne le document de clé donnée, en le produisant une seule fois si besoin.
+     * Les requêtes concurrentes sur une même clé attendent le premier rendu.
+     * Un document lu sur disque est renvoyé en {@link FileSystemResource} (transmissible par sendfile).
+     */
+    public Resource obtenir(String cle, String extension, Producteur producteur) throws IOException {
+        byte[] enMemoire = lireMemoire(cle);
+        if (enMemoire != null) {
+            succesMemoire.incrementAndGet();
+            return new ByteArrayResource(enMemoire);
+        }
+
+        Path fichier = repertoire.resolve(cle + "." + extension);
+        Resource surDisque = lireDisque(cle, fichier);
+        if (surDisque != null) {
+            return surDisque;
+        }
+
+        CompletableFuture<byte[]> rendu = new CompletableFuture<>();
+        CompletableFuture<byte[]> existant = enCours.putIfAbsent(cle, rendu);
+        if (existant != null) {
+            byte[] contenu = attendre(existant);
+            if (contenu != null) {
+                return new ByteArrayResource(contenu);
+            }
+            // Le rendu concurrent a trouvé le document sur disque : le relire
+            surDisque = lireDisque(cle, fichier);
+            if (surDisque == null) {
+                throw new IOException("Document en cache introuvable: " + fichier.getFileName());
+            }
+            return surDisque;
+        }
+        byte[] contenu;
+        try {
+            // Un rendu concurrent a pu se terminer entre la lecture du disque et l'inscription
+            surDisque = lireDisque(cle, fichier);
+            if (surDisque != null) {
+                rendu.complete(null);
+                return surDisque;
+            }
+
+            // Rendu sans verrou : les clés voisines dans la même répartition n'attendent pas
+            ByteArrayOutputStream tampon = new ByteArrayOutputStream(32 * 1024);
+            producteur.ecrire(tampon);
+            contenu = tampon.toByteArray();
+            generations.incrementAndGet();
+
+            synchronized (verrou(cle)) {
+                ecrireDisque(fichier, contenu);
+            }
+            if (contenu.length <= tailleMaxEntreeMemoire) {
+                ecrireMemoire(cle, contenu);
+            }
+            rendu.complete(contenu);
+        } catch (IOException | RuntimeException e) {
+            rendu.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCours.remove(cle, rendu);
+        }
+        // L'éviction prend ensuite les verrous des fichiers qu'elle supprime
+        if (tailleDisque.get() > tailleMaxDisque) {
+            evincerDisque();
+        }
+        return new ByteArrayResource(contenu);
+    }
+
+    /** Document déjà sur disque, ou null. Les petits documents remontent en mémoire. */
+    private Resource lireDisque(String cle, Path fichier) throws IOException {
+        synchronized (verrou(cle)) {
+            if (!Files.exists(fichier)) {
+                return null;
+            }
+            succesDisque.incrementAndGet();
+            // Date de dernier accès approximée : l'éviction part des plus anciens et épargne les récents
+            Files.setLastModifiedTime(fichier, FileTime.fromMillis(System.currentTimeMillis()));
+            if (Files.size(fichier) <= tailleMaxEntreeMemoire) {
+                byte[] contenu = Files.readAllBytes(fichier);
+                ecrireMemoire(cle, contenu);
+                return new ByteArrayResource(contenu);
+            }
+            return new FileSystemResource(fichier);
+        }
+    }
+
+    /** Résultat d'un rendu en cours dans un autre thread ; null s'il a trouvé le document sur disque. */
+    private static byte[] attendre(CompletableFuture<byte[]> rendu) throws IOException {
+        try {
+            return rendu.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    /**
+     * Variante pour les documents consommés en mémoire (textes de liasse, par exemple).
+     */
+    public byte[] obtenirOctets(String cle, String extension, Producteur producteur) throws IOException {
+        Resource resource = obtenir(cle, extension, producteur);
+        if (resource instanceof ByteArrayResource) {
+            return ((ByteArrayResource) resource).getByteArray();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new java.util.HashMap<>();
+        stats.put("succesMemoire", succesMemoire.get());
+        stats.put("succesDisque", succesDisque.get());
+        stats.put("generations", generations.get());
+        stats.put("tailleDisque", tailleDisque.get());
+        synchronized (memoire) {
+            stats.put("entreesMemoire", memoire.size());
+            stats.put("tailleMemoire", tailleMemoire);
+        }
+        return stats;
+    }
+
+    // =========================================
+    // NIVEAU MÉMOIRE (LRU borné en octets)
+    // =========================================
+
+    private byte[] lireMemoire(String cle) {
+        synchronized (memoire) {
+            return memoire.get(cle);
+        }
+    }
+
+    private void ecrireMemoire(String cle, byte[] contenu) {
+        synchronized (memoire) {
+            byte[] precedent = memoire.put(cle, contenu);
+            tailleMemoire += contenu.length - (precedent != null ? precedent.length : 0);
+            Iterator<Map.Entry<String, byte[]>> it = memoire.entrySet().iterator();
+            while (tailleMemoire > tailleMaxMemoire && it.hasNext()) {
+                Map.Entry<String, byte[]> plusAncien = it.next();
+                tailleMemoire -= plusAncien.getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    // =========================================
+    // NIVEAU DISQUE
+    // =========================================
+
+    private Object verrou(String cle) {
+        return verrous[Math.floorMod(cle.hashCode(), NB_VERROUS)];
+    }
+
+    private void ecrireDisque(Path fichier, byte[] contenu) throws IOException {
+        // Écriture dans un fichier temporaire puis renommage atomique : un lecteur
+        // ne voit jamais de document partiel
+        Path temporaire = Files.createTempFile(repertoire, "doc", ".tmp");
+        try {
+            Files.write(temporaire, contenu);
+            Files.move(temporaire, fichier, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+        tailleDisque.addAndGet(contenu.length);
+    }
+
+    private synchronized void evincerDisque() throws IOException {
+        if (tailleDisque.get() <= tailleMaxDisque) {
+            return;
+        }
+        List<Path> fichiers;
+        try (Stream<Path> liste = Files.list(repertoire)) {
+            fichiers = liste.filter(f -> !f.getFileName().toString().endsWith(".tmp"))
+                .sorted(Comparator.comparing(DocumentCacheService::dateModification))
+                .collect(Collectors.toList());
+        }
+        // Redescendre à 90 % de la borne pour ne pas évincer à chaque écriture
+        long cible = tailleMaxDisque * 9 / 10;
+        long limiteGrace = System.currentTimeMillis() - DELAI_GRACE_MS;
+        for (Path fichier : fichiers) {
+            // Triés du plus ancien au plus récent : les suivants sont tous dans le délai de grâce
+            if (tailleDisque.get() <= cible || dateModification(fichier).toMillis() > limiteGrace) {
+                break;
+            }
+            String nom = fichier.getFileName().toString();
+            int point = nom.lastIndexOf('.');
+            synchronized (verrou(point > 0 ? nom.substring(0, point) : nom)) {
+                if (Files.exists(fichier) && dateModification(fichier).toMillis() <= limiteGrace) {
+                    long taille = Files.size(fichier);
+                    if (Files.deleteIfExists(fichier)) {
+                        tailleDisque.addAndGet(-taille);
+                    }
+                }
+            }
+        }
+    }
+
+    private static FileTime dateModification(Path fichier) {
+        try {
+            return Files.getLastModifiedTime(fichier);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // =========================================
+    // CLÉS
+    // =========================================
+
+    public static String hex(byte[] octets) {
+        StringBuilder hex = new StringBuilder(octets.length * 2);
+        for (byte b : octets) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public static Cle cle(String type) {
+        return new Cle(type);
+    }
+
+    /**
+     * Empreinte d'un modèle d'entrée : chaque champ est ajouté dans un ordre fixe,
+     * préfixé par sa longueur pour éviter les collisions par concaténation.
+     */
+    public static final class Cle {
+        private final MessageDigest digest;
+
+        private Cle(String type) {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponible", e);
+            }
+            ajouter(type);
+        }
+
+        public Cle ajouter(Object valeur) {
+            byte[] octets = String.valueOf(valeur).getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) (valeur == null ? 0 : 1));
+            digest.update(Integer.toString(octets.length).getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ':');
+            digest.update(octets);
+            return this;
+        }
+
+        public String calculer() {
+            return hex(digest.digest());
+        }
+    }
+}
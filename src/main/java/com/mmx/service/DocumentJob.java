@@ -0,0 +1,101 @@
+package com.mmx.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Demande de génération de document traitée en arrière-plan par {@link DocumentJobService}.
+ */
+public class DocumentJob {
+    
+    public enum Priorite { UNITAIRE, EXPORT }   // l'ordre des constantes est l'ordre de traitement
+    
+    public enum Statut { EN_ATTENTE, EN_COURS, TERMINE, ECHEC }
+    
+    private final String id;
+    private final String type;
+    private final Priorite priorite;
+    private final String typeMime;
+    private final String nomFichier;
+    private final Instant soumisLe = Instant.now();
+    private final CompletableFuture<DocumentJob> fin = new CompletableFuture<>();
+    
+    private volatile Statut statut = Statut.EN_ATTENTE;
+    private volatile Instant demarreLe;
+    private volatile Instant termineLe;
+    private volatile String erreur;
+    private volatile Object resultat;
+    
+    DocumentJob(String id, String type, Priorite priorite, String typeMime, String nomFichier) {
+        this.id = id;
+        this.type = type;
+        this.priorite = priorite;
+        this.typeMime = typeMime;
+        this.nomFichier = nomFichier;
+    }
+    
+    void demarrer() {
+        demarreLe = Instant.now();
+        statut = Statut.EN_COURS;
+    }
+    
+    void terminer(Object resultat) {
+        this.resultat = resultat;
+        termineLe = Instant.now();
+        statut = Statut.TERMINE;
+        fin.complete(this);
+    }
+    
+    void echouer(Throwable cause) {
+        erreur = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        termineLe = Instant.now();
+        statut = Statut.ECHEC;
+        fin.complete(this);
+    }
+    
+    public boolean isFini() {
+        return statut == Statut.TERMINE || statut == Statut.ECHEC;
+    }
+    
+    /** Complété à la fin du job, en succès comme en échec. */
+    public CompletableFuture<DocumentJob> getFin() {
+        return fin;
+    }
+    
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("jobId", id);
+        map.put("type", type);
+        map.put("priority", priorite);
+        map.put("status", statut);
+        map.put("submittedAt", soumisLe.toString());
+        map.put("startedAt", demarreLe != null ? demarreLe.toString() : null);
+        map.put("finishedAt", termineLe != null ? termineLe.toString() : null);
+        if (demarreLe != null && termineLe != null) {
+            map.put("renderMillis", Duration.between(demarreLe, termineLe).toMillis());
+        }
+        if (erreur != null) {
+            map.put("error", erreur);
+        }
+        if (statut == Statut.TERMINE) {
+            map.put("resultUrl", "/api/jobs/" + id + "/result");
+        }
+        return map;
+    }
+    
+    // Getters
+    public String getId() { return id; }
+    public String getType() { return type; }
+    public Priorite getPriorite() { return priorite; }
+    public String getTypeMime() { return typeMime; }
+    public String getNomFichier() { return nomFichier; }
+    public Instant getSoumisLe() { return soumisLe; }
+    public Statut getStatut() { return statut; }
+    public Instant getDemarreLe() { return demarreLe; }
+    public Instant getTermineLe() { return termineLe; }
+    public String getErreur() { return erreur; }
+    public Object getResultat() { return resultat; }
+}
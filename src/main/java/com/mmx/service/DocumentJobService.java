@@ -0,0 +1,210 @@
+package com.mmx.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * File de génération de documents en arrière-plan.
+ *
+ * Les requêtes HTTP ne font que soumettre un job et rendent la main aussitôt ;
+ * un pool borné de workers traite la file par priorité (une commande avant un export en masse),
+ * puis par ordre d'arrivée. Chaque priorité a sa propre capacité d'attente : au-delà,
+ * la soumission est refusée (RejectedExecutionException) et le client doit réessayer.
+ */
+@Service
+public class DocumentJobService {
+
+    /**
+     * Travail d'un job : un Path (fichier temporaire possédé par le job, supprimé à la purge) ou un objet JSON.
+     * Une Resource partagée (cache) ne doit pas être renvoyée telle quelle : elle n'est lisible qu'une fois.
+     */
+    @FunctionalInterface
+    public interface Rendu {
+        Object executer() throws Exception;
+    }
+
+    private static final Duration RETENTION = Duration.ofMinutes(15);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<DocumentJob.Priorite, Integer> capacites = new EnumMap<>(DocumentJob.Priorite.class);
+    private final Map<DocumentJob.Priorite, AtomicInteger> enAttente = new EnumMap<>(DocumentJob.Priorite.class);
+    private final Map<DocumentJob.Priorite, LongAdder> tempsRendu = new EnumMap<>(DocumentJob.Priorite.class);
+    private final Map<DocumentJob.Priorite, LongAdder> tempsAttente = new EnumMap<>(DocumentJob.Priorite.class);
+    private final Map<DocumentJob.Priorite, LongAdder> rendus = new EnumMap<>(DocumentJob.Priorite.class);
+    private final ConcurrentHashMap<String, DocumentJob> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger enCours = new AtomicInteger();
+    private final AtomicLong soumis = new AtomicLong();
+    private final AtomicLong termines = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong rejetes = new AtomicLong();
+    private final AtomicLong tempsRenduMax = new AtomicLong();
+
+    public DocumentJobService(
+            @Value("${mmx.jobs.workers:0}") int workers,
+            @Value("${mmx.jobs.queue-capacity:200}") int capacite,
+            @Value("${mmx.jobs.export-queue-capacity:10}") int capaciteExports) {
+        int threads = workers > 0 ? workers : Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "document-job");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        capacites.put(DocumentJob.Priorite.UNITAIRE, capacite);
+        capacites.put(DocumentJob.Priorite.EXPORT, capaciteExports);
+        for (DocumentJob.Priorite priorite : DocumentJob.Priorite.values()) {
+            enAttente.put(priorite, new AtomicInteger());
+            tempsRendu.put(priorite, new LongAdder());
+            tempsAttente.put(priorite, new LongAdder());
+            rendus.put(priorite, new LongAdder());
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException si la file de cette priorité est pleine
+     */
+    public DocumentJob soumettre(String type, DocumentJob.Priorite priorite, String typeMime, String nomFichier,
+                                 Rendu rendu) {
+        purger();
+
+        AtomicInteger attente = enAttente.get(priorite);
+        if (attente.incrementAndGet() > capacites.get(priorite)) {
+            attente.decrementAndGet();
+            rejetes.incrementAndGet();
+            throw new RejectedExecutionException("File de génération pleine (" + priorite + ")");
+        }
+
+        DocumentJob job = new DocumentJob(UUID.randomUUID().toString(), type, priorite, typeMime, nomFichier);
+        jobs.put(job.getId(), job);
+        soumis.incrementAndGet();
+        executor.execute(new Tache(job, rendu, sequence.incrementAndGet()));
+        return job;
+    }
+
+    public DocumentJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Attente de la fin d'un job sans bloquer de thread (long polling).
+     * Le futur est complété avec le job à sa fin, ou dans son état courant au bout du délai.
+     */
+    public CompletableFuture<DocumentJob> attendre(DocumentJob job, long timeoutSecondes) {
+        // Futur propre à chaque attente : l'expiration ne doit pas marquer le job comme fini
+        CompletableFuture<DocumentJob> attente = new CompletableFuture<>();
+        job.getFin().thenAccept(attente::complete);
+        return attente.completeOnTimeout(job, timeoutSecondes, TimeUnit.SECONDS);
+    }
+
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new HashMap<>();
+        metriques.put("workers", executor.getMaximumPoolSize());
+        metriques.put("running", enCours.get());
+        metriques.put("submitted", soumis.get());
+        metriques.put("completed", termines.get());
+        metriques.put("failed", echecs.get());
+        metriques.put("rejected", rejetes.get());
+        metriques.put("maxRenderMillis", tempsRenduMax.get());
+        metriques.put("trackedJobs", jobs.size());
+
+        Map<String, Object> parPriorite = new HashMap<>();
+        for (DocumentJob.Priorite priorite : DocumentJob.Priorite.values()) {
+            long nombre = rendus.get(priorite).sum();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("queueDepth", enAttente.get(priorite).get());
+            stats.put("queueCapacity", capacites.get(priorite));
+            stats.put("rendered", nombre);
+            stats.put("avgRenderMillis", nombre == 0 ? 0 : tempsRendu.get(priorite).sum() / nombre);
+            stats.put("avgWaitMillis", nombre == 0 ? 0 : tempsAttente.get(priorite).sum() / nombre);
+            parPriorite.put(priorite.name(), stats);
+        }
+        metriques.put("queues", parPriorite);
+        return metriques;
+    }
+
+    /** Oublie les jobs terminés depuis plus de {@link #RETENTION} et supprime leurs fichiers. */
+    private void purger() {
+        Instant limite = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> {
+            if (!job.isFini() || job.getTermineLe().isAfter(limite)) {
+                return false;
+            }
+            supprimerFichier(job.getResultat());
+            return true;
+        });
+    }
+
+    private static void supprimerFichier(Object resultat) {
+        if (resultat instanceof Path) {
+            try {
+                Files.deleteIfExists((Path) resultat);
+            } catch (IOException e) {
+                System.err.println("Fichier de job non supprimé: " + resultat);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdownNow();
+        jobs.values().forEach(job -> supprimerFichier(job.getResultat()));
+    }
+
+    private final class Tache implements Runnable, Comparable<Tache> {
+        private final DocumentJob job;
+        private final Rendu rendu;
+        private final long ordre;
+
+        Tache(DocumentJob job, Rendu rendu, long ordre) {
+            this.job = job;
+            this.rendu = rendu;
+            this.ordre = ordre;
+        }
+
+        @Override
+        public int compareTo(Tache autre) {
+            int parPriorite = job.getPriorite().compareTo(autre.job.getPriorite());
+            return parPriorite != 0 ? parPriorite : Long.compare(ordre, autre.ordre);
+        }
+
+        @Override
+        public void run() {
+            DocumentJob.Priorite priorite = job.getPriorite();
+            enAttente.get(priorite).decrementAndGet();
+            enCours.incrementAndGet();
+            job.demarrer();
+            tempsAttente.get(priorite).add(Duration.between(job.getSoumisLe(), job.getDemarreLe()).toMillis());
+            try {
+                job.terminer(rendu.executer());
+                termines.incrementAndGet();
+            } catch (Throwable e) {
+                job.echouer(e);
+                echecs.incrementAndGet();
+            } finally {
+                long duree = Duration.between(job.getDemarreLe(), job.getTermineLe()).toMillis();
+                tempsRendu.get(priorite).add(duree);
+                rendus.get(priorite).increment();
+                tempsRenduMax.accumulateAndGet(duree, Math::max);
+                enCours.decrementAndGet();
+            }
+        }
+    }
+}
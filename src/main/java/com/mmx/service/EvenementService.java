@@ -0,0 +1,236 @@
+package com.mmx.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diffusion des changements (commandes, stock) aux clients abonnés par Server-Sent Events.
+ *
+ * Seuls les deltas sont envoyés ; chaque événement porte l'état complet de l'entité modifiée,
+ * il peut donc être rejoué sans risque. Chaque abonné a un tampon borné : un client trop lent
+ * perd ses événements en attente et reçoit un événement "resync" l'invitant à recharger la liste.
+ * Les derniers événements sont conservés pour reprendre une connexion (en-tête Last-Event-ID).
+ * Un envoi bloqué plus de {@link #DELAI_ENVOI_MS} ms (client qui ne lit plus) ferme l'abonné,
+ * pour qu'il ne retienne pas un thread de diffusion partagé avec les autres.
+ */
+@Service
+public class EvenementService {
+
+    public static final String SUJET_COMMANDES = "orders";
+    public static final String SUJET_STOCK = "stock";
+
+    private static final int TAILLE_TAMPON = 256;
+    private static final int TAILLE_HISTORIQUE = 1024;
+    private static final long DUREE_CONNEXION = TimeUnit.MINUTES.toMillis(30);
+    private static final long DELAI_ENVOI_MS = 5_000;
+
+    private final Set<Abonne> abonnes = ConcurrentHashMap.newKeySet();
+    private final Deque<Evenement> historique = new ArrayDeque<>(TAILLE_HISTORIQUE);
+    private long sequence;
+
+    private final ExecutorService diffusion = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "sse-diffusion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService battement = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sse-battement");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EvenementService() {
+        // Commentaire périodique : garde la connexion ouverte à travers les proxys et détecte les clients partis.
+        // Il est envoyé par les threads de diffusion : le thread de battement ne fait jamais d'écriture bloquante
+        battement.scheduleAtFixedRate(() -> abonnes.forEach(Abonne::battre), 20, 20, TimeUnit.SECONDS);
+        battement.scheduleWithFixedDelay(() -> abonnes.forEach(Abonne::surveiller), 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param sujets sujets suivis ({@link #SUJET_COMMANDES}, {@link #SUJET_STOCK})
+     * @param dernierId dernier événement reçu avant une reconnexion, ou null
+     */
+    public SseEmitter abonner(Set<String> sujets, Long dernierId) {
+        SseEmitter emitter = new SseEmitter(DUREE_CONNEXION);
+        Abonne abonne = new Abonne(emitter, sujets);
+        emitter.onCompletion(abonne::fermer);
+        emitter.onTimeout(abonne::fermer);
+        emitter.onError(erreur -> abonne.fermer());
+
+        synchronized (historique) {
+            if (dernierId != null) {
+                Evenement plusAncien = historique.peekFirst();
+                if (plusAncien == null ? dernierId < sequence : plusAncien.id > dernierId + 1) {
+                    abonne.debordement = true; // événements manqués hors de l'historique
+                } else {
+                    for (Evenement evenement : historique) {
+                        if (evenement.id > dernierId && sujets.contains(evenement.sujet)
+                                && !abonne.tampon.offer(evenement)) {
+                            // Retard plus grand que le tampon : rejouer une partie cacherait le reste
+                            abonne.debordement = true;
+                            abonne.tampon.clear();
+                            break;
+                        }
+                    }
+                }
+            }
+            abonnes.add(abonne);
+        }
+        abonne.planifier();
+        return emitter;
+    }
+
+    /** Non bloquant : l'envoi aux abonnés se fait sur les threads de diffusion. */
+    public void publier(String sujet, String type, Map<String, Object> donnees) {
+        synchronized (historique) {
+            Evenement evenement = new Evenement(++sequence, sujet, type, donnees);
+            if (historique.size() == TAILLE_HISTORIQUE) {
+                historique.removeFirst();
+            }
+            historique.addLast(evenement);
+            for (Abonne abonne : abonnes) {
+                if (abonne.sujets.contains(sujet)) {
+                    abonne.offrir(evenement);
+                }
+            }
+        }
+    }
+
+    public int getNombreAbonnes() {
+        return abonnes.size();
+    }
+
+    @PreDestroy
+    public void arreter() {
+        battement.shutdownNow();
+        abonnes.forEach(abonne -> abonne.emitter.complete());
+        diffusion.shutdownNow();
+    }
+
+    private static final class Evenement {
+        private final long id;
+        private final String sujet;
+        private final String type;
+        private final Map<String, Object> donnees;
+
+        Evenement(long id, String sujet, String type, Map<String, Object> donnees) {
+            this.id = id;
+            this.sujet = sujet;
+            this.type = type;
+            this.donnees = donnees;
+        }
+    }
+
+    private final class Abonne {
+        private final SseEmitter emitter;
+        private final Set<String> sujets;
+        private final ArrayBlockingQueue<Evenement> tampon = new ArrayBlockingQueue<>(TAILLE_TAMPON);
+        private final AtomicBoolean planifie = new AtomicBoolean();
+        private volatile boolean debordement;
+        private volatile boolean battementDu;
+        private volatile boolean ferme;
+        // Thread en cours d'écriture et début de l'envoi, protégés par le verrou de l'abonné
+        private Thread envoyeur;
+        private long envoiDepuis;
+
+        Abonne(SseEmitter emitter, Set<String> sujets) {
+            this.emitter = emitter;
+            this.sujets = sujets;
+        }
+
+        void offrir(Evenement evenement) {
+            if (ferme) {
+                return;
+            }
+            if (!tampon.offer(evenement)) {
+                // Client trop lent : inutile de garder des deltas qu'il ne rattrapera pas
+                debordement = true;
+                tampon.clear();
+            }
+            planifier();
+        }
+
+        /** Un seul vidage à la fois par abonné, pour conserver l'ordre des événements. */
+        void planifier() {
+            if (!ferme && planifie.compareAndSet(false, true)) {
+                diffusion.execute(this::vider);
+            }
+        }
+
+        private void vider() {
+            try {
+                if (debordement) {
+                    debordement = false;
+                    envoyer(SseEmitter.event().name("resync").data(Collections.singletonMap("topics", sujets),
+                        MediaType.APPLICATION_JSON));
+                }
+                Evenement evenement;
+                while (!ferme && (evenement = tampon.poll()) != null) {
+                    Map<String, Object> donnees = new HashMap<>(evenement.donnees);
+                    donnees.put("topic", evenement.sujet);
+                    envoyer(SseEmitter.event()
+                        .id(Long.toString(evenement.id))
+                        .name(evenement.type)
+                        .data(donnees, MediaType.APPLICATION_JSON));
+                }
+                if (battementDu && !ferme) {
+                    battementDu = false;
+                    envoyer(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                fermer();
+            } finally {
+                planifie.set(false);
+                if (!ferme && (!tampon.isEmpty() || debordement || battementDu)) {
+                    planifier();
+                }
+            }
+        }
+
+        private void envoyer(SseEmitter.SseEventBuilder evenement) throws IOException {
+            synchronized (this) {
+                envoyeur = Thread.currentThread();
+                envoiDepuis = System.nanoTime();
+            }
+            try {
+                emitter.send(evenement);
+            } finally {
+                synchronized (this) {
+                    envoyeur = null;
+                    // Interruption posée par surveiller() pendant cet envoi : ne pas la laisser au thread du pool
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        void battre() {
+            battementDu = true;
+            planifier();
+        }
+
+        /** Ferme l'abonné dont l'envoi en cours dépasse le délai et libère le thread de diffusion. */
+        void surveiller() {
+            synchronized (this) {
+                if (envoyeur == null || System.nanoTime() - envoiDepuis < TimeUnit.MILLISECONDS.toNanos(DELAI_ENVOI_MS)) {
+                    return;
+                }
+                envoyeur.interrupt();
+            }
+            fermer();
+            emitter.completeWithError(new TimeoutException("Client SSE trop lent"));
+        }
+
+        void fermer() {
+            ferme = true;
+            abonnes.remove(this);
+            tampon.clear();
+        }
+    }
+}
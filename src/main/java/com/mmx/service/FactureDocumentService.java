@@ -0,0 +1,76 @@
+package com.mmx.service;
+
+import com.mmx.pdf.Invoice;
+import com.mmx.pdf.InvoiceItem;
+import com.mmx.pdf.InvoicePDFService;
+import com.mmx.pdf.PDFGeneratorBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Rendu des factures PDF à travers le cache de documents.
+ * Partagé par les téléchargements directs, l'archivage et les jobs asynchrones.
+ */
+@Service
+public class FactureDocumentService {
+    
+    private final DocumentCacheService documentCacheService;
+    
+    public FactureDocumentService(DocumentCacheService documentCacheService) {
+        this.documentCacheService = documentCacheService;
+    }
+    
+    /**
+     * Rendu uniquement si cette facture n'a jamais été générée avec ces options ;
+     * sinon le fichier en cache est retourné tel quel.
+     */
+    public Resource genererPDF(Invoice invoice, boolean includeLogo, boolean includeQRCode, String watermark)
+            throws IOException {
+        // Utilisation du Builder Pattern pour configurer le générateur
+        PDFGeneratorBuilder builder = new PDFGeneratorBuilder()
+            .withLogo(includeLogo)
+            .withQRCode(includeQRCode)
+            .withWatermark(watermark)
+            .withFooterText("MMX Véhicules - Facture N° " + invoice.getInvoiceNumber());
+        InvoicePDFService pdfService = builder.build();
+        
+        return documentCacheService.obtenir(cleFacture(invoice, builder), "pdf",
+            out -> pdfService.writeInvoicePDF(invoice, out));
+    }
+    
+    public String nomFichier(Invoice invoice) {
+        return new PDFGeneratorBuilder().build().getPDFMetadata(invoice);
+    }
+    
+    /**
+     * Empreinte de tout ce qui apparaît dans le PDF. La date du jour en fait partie
+     * car elle est imprimée en pied de page.
+     */
+    private static String cleFacture(Invoice invoice, PDFGeneratorBuilder builder) {
+        DocumentCacheService.Cle cle = DocumentCacheService.cle("invoice")
+            .ajouter(builder.getSignature())
+            .ajouter(LocalDate.now())
+            .ajouter(invoice.getId())
+            .ajouter(invoice.getInvoiceNumber())
+            .ajouter(invoice.getInvoiceDate())
+            .ajouter(invoice.getClientName())
+            .ajouter(invoice.getClientAddress())
+            .ajouter(invoice.getStatus())
+            .ajouter(invoice.getSubTotal())
+            .ajouter(invoice.getTaxRate())
+            .ajouter(invoice.getTaxAmount())
+            .ajouter(invoice.getTotalAmount());
+        if (invoice.getItems() != null) {
+            for (InvoiceItem item : invoice.getItems()) {
+                cle.ajouter(item.getDescription())
+                    .ajouter(item.getQuantity())
+                    .ajouter(item.getUnitPrice())
+                    .ajouter(item.getTotalPrice());
+            }
+        }
+        return cle.calculer();
+    }
+}
@@ -0,0 +1,322 @@
+package com.mmx.service;
+
+import com.mmx.model.Vehicule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Images des véhicules : originaux envoyés par l'administration et miniatures générées.
+ *
+ * Un original est rangé sous l'empreinte SHA-256 de son contenu ; ses miniatures sont
+ * produites en arrière-plan par un pool borné (javax.imageio), ou à la première demande
+ * si le pool est saturé, dans la limite de {@code workers} rendus simultanés. Tous les fichiers
+ * sont immuables : l'empreinte sert d'ETag fort.
+ *
+ * Les dimensions sont lues dans l'en-tête avant tout décodage : une image de plus de
+ * {@code mmx.images.max-pixels} pixels est refusée, et les miniatures sont décodées
+ * en sous-échantillonnant l'original plutôt qu'à pleine résolution.
+ */
+@Service
+public class ImageVehiculeService {
+
+    /** Tailles servies ; l'original n'est jamais redimensionné. */
+    public enum Taille {
+        MINIATURE(320), MOYENNE(800), ORIGINAL(0);
+
+        private final int largeur;
+
+        Taille(int largeur) {
+            this.largeur = largeur;
+        }
+
+        /** @throws IllegalArgumentException si la taille est inconnue */
+        public static Taille depuis(String nom) {
+            switch (nom.toLowerCase(Locale.ROOT)) {
+                case "thumb": case "miniature": return MINIATURE;
+                case "medium": case "moyenne": return MOYENNE;
+                case "original": return ORIGINAL;
+                default: throw new IllegalArgumentException("Taille d'image inconnue: " + nom);
+            }
+        }
+    }
+
+    private static final Pattern EMPREINTE = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path originaux;
+    private final Path miniatures;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Path>> enCours = new ConcurrentHashMap<>();
+    /** empreinte -> original, nommé empreinte.format */
+    private final Map<String, Path> parEmpreinte = new ConcurrentHashMap<>();
+    private final VehiculeService vehiculeService;
+    private final long pixelsMax;
+    /** Rendus faits sur le thread de la requête, quand la miniature n'est pas encore prête. */
+    private final Semaphore rendusDirects;
+
+    public ImageVehiculeService(
+            VehiculeService vehiculeService,
+            @Value("${mmx.images.dir:${java.io.tmpdir}/mmx-images}") String repertoire,
+            @Value("${mmx.images.workers:2}") int workers,
+            @Value("${mmx.images.queue-capacity:100}") int capacite,
+            @Value("${mmx.images.max-pixels:40000000}") long pixelsMax) throws IOException {
+        this.vehiculeService = vehiculeService;
+        this.pixelsMax = pixelsMax;
+        this.rendusDirects = new Semaphore(workers);
+        this.originaux = Files.createDirectories(Paths.get(repertoire, "originaux"));
+        this.miniatures = Files.createDirectories(Paths.get(repertoire, "miniatures"));
+        // File bornée : au-delà, la miniature sera produite à sa première demande
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacite), r -> {
+                Thread thread = new Thread(r, "image-miniatures");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+        try (Stream<Path> fichiers = Files.list(originaux)) {
+            fichiers.forEach(fichier -> {
+                String nom = fichier.getFileName().toString();
+                int point = nom.indexOf('.');
+                if (point > 0 && !nom.endsWith(".tmp")) {
+                    parEmpreinte.put(nom.substring(0, point), fichier);
+                }
+            });
+        }
+    }
+
+    /**
+     * Enregistre l'image d'un véhicule et lance la génération de ses miniatures.
+     * @return l'empreinte de l'original
+     * @throws IllegalArgumentException si le véhicule n'existe pas ou si le contenu n'est pas une image lisible
+     */
+    public String enregistrer(Long vehiculeId, InputStream contenu) throws IOException {
+        Vehicule vehicule = vehiculeService.getVehiculeById(vehiculeId);
+        if (vehicule == null) {
+            throw new IllegalArgumentException("Véhicule introuvable: " + vehiculeId);
+        }
+
+        Path temporaire = Files.createTempFile(originaux, "upload", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            try (InputStream in = new DigestInputStream(contenu, sha256)) {
+                Files.copy(in, temporaire, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String format = format(temporaire);
+            String empreinte = DocumentCacheService.hex(sha256.digest());
+            if (!parEmpreinte.containsKey(empreinte)) {
+                Path original = originaux.resolve(empreinte + "." + format);
+                Files.move(temporaire, original, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                parEmpreinte.put(empreinte, original);
+            }
+
+            for (Taille taille : Taille.values()) {
+                if (taille != Taille.ORIGINAL) {
+                    executor.execute(() -> generer(empreinte, taille));
+                }
+            }
+            vehicule.setImageUrl("/api/images/" + empreinte + "/thumb");
+            vehiculeService.updateVehicule(vehicule);
+            return empreinte;
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+    }
+
+    /**
+     * Fichier de l'image demandée, en générant la miniature si elle n'existe pas encore.
+     * @return null si l'empreinte est inconnue
+     * @throws RejectedExecutionException si la miniature manque et que les rendus directs sont tous occupés
+     */
+    public Path obtenir(String empreinte, Taille taille) throws IOException {
+        Path original = EMPREINTE.matcher(empreinte).matches() ? parEmpreinte.get(empreinte) : null;
+        if (original == null) {
+            return null;
+        }
+        if (taille == Taille.ORIGINAL) {
+            return original;
+        }
+        Path miniature = cheminMiniature(empreinte, taille);
+        if (Files.exists(miniature)) {
+            return miniature;
+        }
+        CompletableFuture<Path> enCoursDeRendu = enCours.get(miniature.toString());
+        if (enCoursDeRendu != null) {
+            return attendre(enCoursDeRendu);
+        }
+        if (!rendusDirects.tryAcquire()) {
+            throw new RejectedExecutionException("Génération des miniatures saturée");
+        }
+        try {
+            return attendre(generer(empreinte, taille));
+        } finally {
+            rendusDirects.release();
+        }
+    }
+
+    private static Path attendre(CompletableFuture<Path> rendu) throws IOException {
+        try {
+            return rendu.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    /** Type MIME du fichier servi : les miniatures sont toujours en JPEG. */
+    public String typeMime(Path fichier, Taille taille) {
+        if (taille != Taille.ORIGINAL) {
+            return "image/jpeg";
+        }
+        String nom = fichier.getFileName().toString();
+        return "image/" + nom.substring(nom.indexOf('.') + 1);
+    }
+
+    /**
+     * Format lu par javax.imageio (png, jpeg, gif...) ; rejette tout ce qui n'est pas une image,
+     * ou une image trop grande (dimensions lues dans l'en-tête, sans décodage).
+     */
+    private String format(Path fichier) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(fichier.toFile())) {
+            Iterator<ImageReader> lecteurs = in != null ? ImageIO.getImageReaders(in) : null;
+            if (lecteurs == null || !lecteurs.hasNext()) {
+                throw new IllegalArgumentException("Format d'image non reconnu");
+            }
+            ImageReader lecteur = lecteurs.next();
+            try {
+                lecteur.setInput(in, true, true);
+                verifierDimensions(lecteur);
+                return lecteur.getFormatName().toLowerCase(Locale.ROOT);
+            } finally {
+                lecteur.dispose();
+            }
+        }
+    }
+
+    /** @throws IllegalArgumentException si l'image dépasse {@link #pixelsMax} pixels */
+    private void verifierDimensions(ImageReader lecteur) throws IOException {
+        long largeur = lecteur.getWidth(0);
+        long hauteur = lecteur.getHeight(0);
+        if (largeur * hauteur > pixelsMax) {
+            throw new IllegalArgumentException("Image trop grande: " + largeur + "x" + hauteur
+                + " pixels (maximum " + pixelsMax + ")");
+        }
+    }
+
+    private Path cheminMiniature(String empreinte, Taille taille) {
+        return miniatures.resolve(empreinte + "-" + taille.largeur + ".jpg");
+    }
+
+    /** Une seule génération par miniature, même si le worker et une requête la demandent ensemble. */
+    private CompletableFuture<Path> generer(String empreinte, Taille taille) {
+        Path miniature = cheminMiniature(empreinte, taille);
+        CompletableFuture<Path> nouveau = new CompletableFuture<>();
+        CompletableFuture<Path> existant = enCours.putIfAbsent(miniature.toString(), nouveau);
+        if (existant != null) {
+            return existant;
+        }
+        try {
+            if (!Files.exists(miniature)) {
+                redimensionner(parEmpreinte.get(empreinte), miniature, taille.largeur);
+            }
+            nouveau.complete(miniature);
+        } catch (IOException | RuntimeException e) {
+            nouveau.completeExceptionally(e);
+        } finally {
+            enCours.remove(miniature.toString());
+        }
+        return nouveau;
+    }
+
+    private void redimensionner(Path source, Path cible, int largeurMax) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> lecteurs = in != null ? ImageIO.getImageReaders(in) : null;
+            if (lecteurs == null || !lecteurs.hasNext()) {
+                throw new IOException("Image illisible: " + source.getFileName());
+            }
+            ImageReader lecteur = lecteurs.next();
+            try {
+                lecteur.setInput(in, true, true);
+                verifierDimensions(lecteur);
+                // Décode une ligne et une colonne sur n, en gardant au moins deux fois la largeur cible
+                // pour que la réduction finale reste lissée
+                int pas = Math.max(1, lecteur.getWidth(0) / (2 * largeurMax));
+                ImageReadParam parametres = lecteur.getDefaultReadParam();
+                parametres.setSourceSubsampling(pas, pas, 0, 0);
+                image = lecteur.read(0, parametres);
+            } finally {
+                lecteur.dispose();
+            }
+        }
+        double ratio = Math.min(1.0, (double) largeurMax / image.getWidth());
+        int largeur = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int hauteur = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        // JPEG sans transparence : fond blanc sous les PNG transparents
+        BufferedImage redimensionnee = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = redimensionnee.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, largeur, hauteur);
+            graphics.drawImage(image, 0, 0, largeur, hauteur, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path temporaire = Files.createTempFile(miniatures, "miniature", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporaire)) {
+                if (!ImageIO.write(redimensionnee, "jpg", out)) {
+                    throw new IOException("Encodeur JPEG indisponible");
+                }
+            }
+            Files.move(temporaire, cible, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdownNow();
+    }
+}
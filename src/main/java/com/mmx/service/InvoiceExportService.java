@@ -0,0 +1,124 @@
+package com.mmx.service;
+
+import com.mmx.pdf.Invoice;
+import com.mmx.pdf.InvoicePDFService;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export en masse des factures PDF dans une archive ZIP écrite au fil de l'eau.
+ *
+ * Les PDF sont rendus en parallèle ; chacun est ajouté à l'archive dès qu'il est prêt.
+ * Le nombre de rendus en cours ou en attente d'écriture est borné, donc la mémoire
+ * utilisée ne dépend pas du nombre de factures exportées.
+ */
+@Service
+public class InvoiceExportService {
+    
+    private final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private final int maxEnCours = threads * 2;
+    private final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+        Thread thread = new Thread(r, "invoice-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * @return nombre de factures ajoutées à l'archive
+     */
+    public int exporterZip(Iterator<Invoice> factures, InvoicePDFService pdfService, OutputStream out)
+            throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // Les PDF sont déjà compressés : les stocker évite de recompresser pour rien
+        zip.setLevel(java.util.zip.Deflater.NO_COMPRESSION);
+        
+        CompletionService<Rendu> rendus = new ExecutorCompletionService<>(executor);
+        Set<String> nomsUtilises = new HashSet<>();
+        List<String> erreurs = new ArrayList<>();
+        int enCours = 0;
+        int exportees = 0;
+        
+        try {
+            while (factures.hasNext() || enCours > 0) {
+                // Remplir la fenêtre de rendus sans dépasser la borne
+                while (enCours < maxEnCours && factures.hasNext()) {
+                    Invoice invoice = factures.next();
+                    rendus.submit(() -> rendre(invoice, pdfService));
+                    enCours++;
+                }
+                
+                Rendu rendu = rendus.take().get();
+                enCours--;
+                if (rendu.erreur != null) {
+                    erreurs.add(rendu.nomFichier + " : " + rendu.erreur);
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry(nomUnique(rendu.nomFichier, nomsUtilises)));
+                rendu.contenu.writeTo(zip);
+                zip.closeEntry();
+                exportees++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur lors de l'export des factures", e.getCause());
+        }
+        
+        if (!erreurs.isEmpty()) {
+            zip.putNextEntry(new ZipEntry("erreurs.txt"));
+            zip.write(String.join("\n", erreurs).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+        return exportees;
+    }
+    
+    private Rendu rendre(Invoice invoice, InvoicePDFService pdfService) {
+        String nomFichier = "facture_" + invoice.getId() + ".pdf";
+        try {
+            nomFichier = pdfService.getPDFMetadata(invoice);
+            ByteArrayOutputStream contenu = new ByteArrayOutputStream(16 * 1024);
+            pdfService.writeInvoicePDF(invoice, contenu);
+            return new Rendu(nomFichier, contenu, null);
+        } catch (Exception e) {
+            return new Rendu(nomFichier, null, e.getMessage());
+        }
+    }
+    
+    private String nomUnique(String nom, Set<String> nomsUtilises) {
+        String candidat = nom;
+        int suffixe = 2;
+        while (!nomsUtilises.add(candidat)) {
+            candidat = nom.replaceFirst("(\\.pdf)?$", "_" + suffixe++ + ".pdf");
+        }
+        return candidat;
+    }
+    
+    @PreDestroy
+    public void arreter() {
+        executor.shutdownNow();
+    }
+    
+    private static final class Rendu {
+        final String nomFichier;
+        final ByteArrayOutputStream contenu;
+        final String erreur;
+        
+        Rendu(String nomFichier, ByteArrayOutputStream contenu, String erreur) {
+            this.nomFichier = nomFichier;
+            this.contenu = contenu;
+            this.erreur = erreur;
+        }
+    }
+}
@@ -6,15 +6,17 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class InvoiceService {
     
-    private Map<Long, Invoice> invoices = new HashMap<>();
+    private Map<Long, Invoice> invoices = new ConcurrentHashMap<>();
     private Long nextId = 1L;
+    private final VersionDonnees versionFactures = new VersionDonnees("factures");
     
     public InvoiceService() {
         // Données de démo
@@ -54,6 +56,7 @@ public class InvoiceService {
         
         invoice.setItems(items);
         invoices.put(invoice.getId(), invoice);
+        versionFactures.incrementer();
     }
     
     public Invoice getInvoiceById(Long id) {
@@ -64,6 +67,7 @@ public class InvoiceService {
         Invoice invoice = invoices.get(id);
         if (invoice != null) {
             invoice.setStatus("validated");
+            versionFactures.incrementer();
         }
         return invoice;
     }
@@ -76,7 +80,22 @@ public class InvoiceService {
         }
     }
     
+    public VersionDonnees getVersionFactures() {
+        return versionFactures;
+    }
+    
     public List<Invoice> getAllInvoices() {
         return new ArrayList<>(invoices.values());
     }
+    
+    /**
+     * Parcours paresseux des factures filtrées (bornes incluses, critères null ignorés).
+     */
+    public Iterator<Invoice> findInvoices(LocalDate from, LocalDate to, String status) {
+        return invoices.values().stream()
+            .filter(invoice -> from == null || (invoice.getInvoiceDate() != null && !invoice.getInvoiceDate().isBefore(from)))
+            .filter(invoice -> to == null || (invoice.getInvoiceDate() != null && !invoice.getInvoiceDate().isAfter(to)))
+            .filter(invoice -> status == null || status.equalsIgnoreCase(invoice.getStatus()))
+            .iterator();
+    }
 }
@@ -5,77 +5,84 @@ import com.mmx.builder.LiasseDocument;
 import com.mmx.singleton.LiasseVierge;
 import org.springframework.stereotype.Service;
 
+import java.io.*;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.Locale;
+
 @Service
 public class LiasseService {
     
+    // Équivalent de String.format("%.2f", prix) sans analyser le motif à chaque appel
+    private static final ThreadLocal<DecimalFormat> FORMAT_PRIX = ThreadLocal.withInitial(() -> {
+        DecimalFormat format = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    });
+    
+    private final DocumentCacheService documentCacheService;
+    
+    public LiasseService(DocumentCacheService documentCacheService) {
+        this.documentCacheService = documentCacheService;
+    }
+    
+    /**
+     * Liasse d'une commande, servie depuis le cache si les mêmes informations ont déjà
+     * été générées le même jour : la date imprimée est celle de la première génération du jour.
+     */
     public LiasseDocument genererLiasseComplete(Long orderId, String clientName, 
                                                String vehicleModel, double price, 
                                                String[] options, String format) {
+        DocumentCacheService.Cle cle = DocumentCacheService.cle("liasse")
+            .ajouter(LocalDate.now())
+            .ajouter(orderId)
+            .ajouter(clientName)
+            .ajouter(vehicleModel)
+            .ajouter(price)
+            .ajouter(format);
+        if (options != null) {
+            for (String option : options) {
+                cle.ajouter(option);
+            }
+        }
+        
+        try {
+            byte[] contenu = documentCacheService.obtenirOctets(cle.calculer(), "liasse", out ->
+                encoder(construireLiasse(orderId, clientName, vehicleModel, price, options, format), out));
+            return decoder(contenu);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cache de liasses indisponible", e);
+        }
+    }
+    
+    /** Construction effective, hors cache (visible du paquet pour le benchmark). */
+    LiasseDocument construireLiasse(Long orderId, String clientName, 
+                                    String vehicleModel, double price, 
+                                    String[] options, String format) {
         
         // 1. Vérifier le Singleton
         LiasseVierge liasseVierge = LiasseVierge.getInstance();
         System.out.println("Service: Utilisation de la liasse vierge au format " + liasseVierge.getFormat());
         
-        // 2. Construire la liasse avec le Builder
-        DocumentBuilder builder = new DocumentBuilder();
-        
-        // Document 1: Demande d'immatriculation
-        builder.setDemandeImmatriculation(
-            "=== DEMANDE D'IMMATRICULATION ===\n" +
-            "Numéro de commande: CMD-" + orderId + "\n" +
-            "Nom du client: " + clientName + "\n" +
-            "Modèle du véhicule: " + vehicleModel + "\n" +
-            "Type de véhicule: Voiture particulière\n" +
-            "Date de la demande: " + new java.util.Date() + "\n" +
-            "Signature du client: ________________\n" +
-            "Cachet de l'administration: [À APPOSER]"
-        );
+        // 2. Valeurs calculées une seule fois pour les trois documents
+        String[] valeurs = new String[LiasseVierge.CHAMPS.length];
+        valeurs[LiasseVierge.COMMANDE] = String.valueOf(orderId);
+        valeurs[LiasseVierge.CLIENT] = clientName;
+        valeurs[LiasseVierge.MODELE] = vehicleModel;
+        valeurs[LiasseVierge.DATE] = new java.util.Date().toString();
+        valeurs[LiasseVierge.PRIX] = FORMAT_PRIX.get().format(price);
+        valeurs[LiasseVierge.OPTIONS] = options != null ? String.join(", ", options) : "Aucune";
+        valeurs[LiasseVierge.LISTE_OPTIONS] = listeOptions(options);
         
-        // Document 2: Certificat de cession
-        builder.setCertificatCession(
-            "=== CERTIFICAT DE CESSION ===\n" +
-            "Je soussigné(e), MMX Véhicules,\n" +
-            "cède à " + clientName + "\n" +
-            "le véhicule suivant: " + vehicleModel + "\n" +
-            "pour le prix de: " + String.format("%.2f", price) + " €\n" +
-            "Options incluses: " + (options != null ? String.join(", ", options) : "Aucune") + "\n" +
-            "Date de cession: " + new java.util.Date() + "\n" +
-            "Lieu: Siège social MMX Véhicules\n" +
-            "Signature du vendeur: ________________\n" +
-            "Signature de l'acheteur: ________________"
-        );
-        
-        // Document 3: Bon de commande
-        builder.setBonCommande(
-            "=== BON DE COMMANDE ===\n" +
-            "Référence: CMD-" + orderId + "\n" +
-            "Date: " + new java.util.Date() + "\n" +
-            "\n" +
-            "CLIENT:\n" +
-            "Nom: " + clientName + "\n" +
-            "\n" +
-            "VÉHICULE COMMANDÉ:\n" +
-            "Modèle: " + vehicleModel + "\n" +
-            "Prix de base: " + String.format("%.2f", price) + " €\n" +
-            "\n" +
-            "OPTIONS:\n" +
-            (options != null && options.length > 0 ? 
-                String.join("\n", java.util.Arrays.stream(options)
-                    .map(opt -> "  • " + opt)
-                    .toArray(String[]::new)) : 
-                "  • Aucune option") + "\n" +
-            "\n" +
-            "MONTANT TOTAL: " + String.format("%.2f", price) + " €\n" +
-            "\n" +
-            "CONDITIONS:\n" +
-            "  • Paiement à la livraison\n" +
-            "  • Livraison sous 15 jours ouvrables\n" +
-            "  *Garantie: 24 mois\n" +
-            "\n" +
-            "STATUT: COMMANDE CONFIRMÉE\n" +
-            "\n" +
-            "Signature: ________________"
-        );
+        // 3. Remplir la liasse vierge partagée et construire la liasse avec le Builder
+        String[] formulaires = liasseVierge.remplir(valeurs);
+        DocumentBuilder builder = new DocumentBuilder();
+        builder.setDemandeImmatriculation(formulaires[0]);
+        builder.setCertificatCession(formulaires[1]);
+        builder.setBonCommande(formulaires[2]);
         
         // Définir le format
         builder.setFormat(format);
@@ -84,15 +91,53 @@ public class LiasseService {
         return builder.build();
     }
     
+    private static String listeOptions(String[] options) {
+        if (options == null || options.length == 0) {
+            return "  • Aucune option";
+        }
+        StringBuilder liste = new StringBuilder(options.length * 24);
+        for (int i = 0; i < options.length; i++) {
+            if (i > 0) {
+                liste.append('\n');
+            }
+            liste.append("  • ").append(options[i]);
+        }
+        return liste.toString();
+    }
+    
+    private static void encoder(LiasseDocument liasse, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        for (String partie : new String[] {liasse.getDemandeImmatriculation(), liasse.getCertificatCession(),
+                                           liasse.getBonCommande(), liasse.getFormat()}) {
+            byte[] octets = partie.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(octets.length);
+            data.write(octets);
+        }
+        data.flush();
+    }
+    
+    private static LiasseDocument decoder(byte[] contenu) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(contenu));
+        String[] parties = new String[4];
+        for (int i = 0; i < parties.length; i++) {
+            byte[] octets = new byte[data.readInt()];
+            data.readFully(octets);
+            parties[i] = new String(octets, StandardCharsets.UTF_8);
+        }
+        return new LiasseDocument(parties[0], parties[1], parties[2], parties[3]);
+    }
+    
     public String genererResumeLiasse(LiasseDocument liasse) {
         return "LIASSE GÉNÉRÉE:\n" +
                "Format: " + liasse.getFormat() + "\n" +
                "Contient 3 documents:\n" +
-               "1. Demande d'immatriculation (" + 
-                  liasse.getDemandeImmatriculation().split("\n")[0] + ")\n" +
-               "2. Certificat de cession (" + 
-                  liasse.getCertificatCession().split("\n")[0] + ")\n" +
-               "3. Bon de commande (" + 
-                  liasse.getBonCommande().split("\n")[0] + ")";
+               "1. Demande d'immatriculation (" + premiereLigne(liasse.getDemandeImmatriculation()) + ")\n" +
+               "2. Certificat de cession (" + premiereLigne(liasse.getCertificatCession()) + ")\n" +
+               "3. Bon de commande (" + premiereLigne(liasse.getBonCommande()) + ")";
+    }
+    
+    private static String premiereLigne(String document) {
+        int fin = document.indexOf('\n');
+        return fin < 0 ? document : document.substring(0, fin);
     }
 }
@@ -3,18 +3,33 @@ package com.mmx.service;
 import com.mmx.factory.ElectriqueFactory;
 import com.mmx.factory.EssenceFactory;
 import com.mmx.factory.VehiculeFactory;
+import com.mmx.iterator.CritereVehicule;
+import com.mmx.iterator.IterateurFiltre;
+import com.mmx.iterator.IterateurParBlocs;
 import com.mmx.model.Vehicule;
+import com.mmx.observer.CatalogueVehicule;
+import com.mmx.observer.EvenementCatalogue;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Service
 public class VehiculeService {
     
-    private Map<Long, Vehicule> vehicules = new HashMap<>();
+    // Trié par id : permet un parcours par blocs sans copier tout le stock
+    private NavigableMap<Long, Vehicule> vehicules = new ConcurrentSkipListMap<>();
+    // Index par sous-classe (type et énergie) : une recherche ne parcourt que les classes demandées
+    private final Map<Class<?>, NavigableMap<Long, Vehicule>> parClasse = new ConcurrentHashMap<>();
     private Long nextId = 1L;
+    private final EvenementService evenementService;
+    private final CatalogueVehicule catalogue;
+    private final VersionDonnees versionCatalogue = new VersionDonnees("catalogue");
     
-    public VehiculeService() {
+    public VehiculeService(EvenementService evenementService, CatalogueVehicule catalogue) {
+        this.evenementService = evenementService;
+        this.catalogue = catalogue;
         initializeDemoData();
     }
     
@@ -29,21 +44,21 @@ public class VehiculeService {
         v1.setAnneeFabrication(2023);
         v1.setCouleur("Bleu");
         v1.setKilometrage(15000);
-        vehicules.put(v1.getId(), v1);
+        enregistrer(v1);
         
         Vehicule v2 = essenceFactory.creerAutomobile("Renault", "Clio", 20000.0);
         v2.setId(nextId++);
         v2.setAnneeFabrication(2022);
         v2.setCouleur("Rouge");
         v2.setKilometrage(25000);
-        vehicules.put(v2.getId(), v2);
+        enregistrer(v2);
         
         Vehicule v3 = essenceFactory.creerScooter("Yamaha", "NMAX", 5000.0);
         v3.setId(nextId++);
         v3.setAnneeFabrication(2023);
         v3.setCouleur("Noir");
         v3.setKilometrage(5000);
-        vehicules.put(v3.getId(), v3);
+        enregistrer(v3);
         
         // Véhicules électriques
         Vehicule v4 = electriqueFactory.creerAutomobile("Tesla", "Model 3", 45000.0);
@@ -51,38 +66,98 @@ public class VehiculeService {
         v4.setAnneeFabrication(2024);
         v4.setCouleur("Blanc");
         v4.setKilometrage(10000);
-        vehicules.put(v4.getId(), v4);
+        enregistrer(v4);
         
         Vehicule v5 = electriqueFactory.creerScooter("NIU", "NQi GT", 3500.0);
         v5.setId(nextId++);
         v5.setAnneeFabrication(2023);
         v5.setCouleur("Vert");
         v5.setKilometrage(2000);
-        vehicules.put(v5.getId(), v5);
+        enregistrer(v5);
     }
     
     public List<Vehicule> getAllVehicules() {
         return new ArrayList<>(vehicules.values());
     }
     
+    /** Parcours paresseux du stock, {@code taille} véhicules à la fois (exports, réindexation). */
+    public IterateurParBlocs<Vehicule> parcourir(int taille) {
+        return IterateurParBlocs.depuis(vehicules, taille);
+    }
+    
+    /**
+     * Recherche paresseuse : type et énergie passent par l'index des classes,
+     * prix et stock sont évalués au fil du parcours.
+     */
+    public IterateurFiltre<Vehicule> rechercher(CritereVehicule critere) {
+        List<Class<? extends Vehicule>> classes = critere.classes();
+        return IterateurFiltre.<Vehicule>de(() -> classes.stream()
+                .map(classe -> parClasse.getOrDefault(classe, Collections.emptyNavigableMap()))
+                .flatMap(index -> index.values().stream())
+                .iterator())
+            .filtrer(critere.predicatResiduel());
+    }
+    
     public Vehicule getVehiculeById(Long id) {
         return vehicules.get(id);
     }
     
+    /**
+     * Remplace un véhicule. Les changements de prix et de disponibilité sont comparés à la version
+     * enregistrée : un objet déjà enregistré et modifié sur place ne produit pas d'événement catalogue
+     * (pour un changement de prix, passer par {@link #modifierPrix(Long, double)}).
+     */
     public void updateVehicule(Vehicule vehicule) {
         if (vehicule != null && vehicule.getId() != null) {
-            vehicules.put(vehicule.getId(), vehicule);
+            Vehicule precedent = vehicules.get(vehicule.getId());
+            if (precedent != null) {
+                mettreAJour(vehicule, precedent.getPrix(), estDisponible(precedent));
+            } else {
+                mettreAJour(vehicule, vehicule.getPrix(), estDisponible(vehicule));
+            }
         }
     }
     
     public void solderVehicule(Long id, double pourcentageReduction) {
         Vehicule vehicule = getVehiculeById(id);
         if (vehicule != null) {
+            double ancienPrix = vehicule.getPrix();
+            boolean etaitDisponible = estDisponible(vehicule);
             double nouveauPrix = vehicule.getPrix() * (1 - pourcentageReduction / 100);
             vehicule.setPrix(nouveauPrix);
             vehicule.setEnStock(false); // Marquer comme vendu
-            updateVehicule(vehicule);
+            mettreAJour(vehicule, ancienPrix, etaitDisponible);
+        }
+    }
+    
+    /** Change le prix d'un véhicule ; une baisse sur un véhicule disponible déclenche les alertes clients. */
+    public Vehicule modifierPrix(Long id, double prix) {
+        if (prix < 0 || Double.isNaN(prix) || Double.isInfinite(prix)) {
+            throw new IllegalArgumentException("Prix invalide: " + prix);
+        }
+        Vehicule vehicule = getVehiculeById(id);
+        if (vehicule != null) {
+            double ancienPrix = vehicule.getPrix();
+            boolean etaitDisponible = estDisponible(vehicule);
+            vehicule.setPrix(prix);
+            mettreAJour(vehicule, ancienPrix, etaitDisponible);
+        }
+        return vehicule;
+    }
+    
+    /** Ajoute {@code quantite} exemplaires ; un véhicule en rupture redevient disponible. */
+    public Vehicule reapprovisionner(Long id, int quantite) {
+        if (quantite <= 0) {
+            throw new IllegalArgumentException("La quantité doit être positive");
+        }
+        Vehicule vehicule = getVehiculeById(id);
+        if (vehicule != null) {
+            boolean etaitDisponible = estDisponible(vehicule);
+            vehicule.setStock(Math.max(0, vehicule.getStock()) + quantite);
+            vehicule.setEnStock(true);
+            mettreAJour(vehicule, vehicule.getPrix(), etaitDisponible);
         }
+        return vehicule;
     }
     
     public List<Vehicule> getVehiculesEnStock() {
@@ -110,7 +185,9 @@ public class VehiculeService {
         EssenceFactory factory = new EssenceFactory();
         Vehicule v = factory.creerAutomobile(marque, modele, prix);
         v.setId(nextId++);
-        vehicules.put(v.getId(), v);
+        enregistrer(v);
+        publierStock("vehicule-created", v);
+        catalogue.publier(EvenementCatalogue.vehiculeAjoute(v));
         return v;
     }
     
@@ -118,7 +195,9 @@ public class VehiculeService {
         ElectriqueFactory factory = new ElectriqueFactory();
         Vehicule v = factory.creerAutomobile(marque, modele, prix);
         v.setId(nextId++);
-        vehicules.put(v.getId(), v);
+        enregistrer(v);
+        publierStock("vehicule-created", v);
+        catalogue.publier(EvenementCatalogue.vehiculeAjoute(v));
         return v;
     }
     
@@ -126,7 +205,9 @@ public class VehiculeService {
         EssenceFactory factory = new EssenceFactory();
         Vehicule v = factory.creerScooter(marque, modele, prix);
         v.setId(nextId++);
-        vehicules.put(v.getId(), v);
+        enregistrer(v);
+        publierStock("vehicule-created", v);
+        catalogue.publier(EvenementCatalogue.vehiculeAjoute(v));
         return v;
     }
     
@@ -134,7 +215,60 @@ public class VehiculeService {
         ElectriqueFactory factory = new ElectriqueFactory();
         Vehicule v = factory.creerScooter(marque, modele, prix);
         v.setId(nextId++);
-        vehicules.put(v.getId(), v);
+        enregistrer(v);
+        publierStock("vehicule-created", v);
+        catalogue.publier(EvenementCatalogue.vehiculeAjoute(v));
         return v;
     }
+    
+    private void enregistrer(Vehicule vehicule) {
+        Vehicule precedent = vehicules.put(vehicule.getId(), vehicule);
+        if (precedent != null && precedent.getClass() != vehicule.getClass()) {
+            parClasse.get(precedent.getClass()).remove(precedent.getId());
+        }
+        parClasse.computeIfAbsent(vehicule.getClass(), c -> new ConcurrentSkipListMap<>()).put(vehicule.getId(), vehicule);
+        versionCatalogue.incrementer();
+    }
+    
+    /** Validateur HTTP du catalogue, incrémenté à chaque création ou modification de véhicule. */
+    public VersionDonnees getVersionCatalogue() {
+        return versionCatalogue;
+    }
+    
+    private void mettreAJour(Vehicule vehicule, double ancienPrix, boolean etaitDisponible) {
+        enregistrer(vehicule);
+        publierStock("vehicule-updated", vehicule);
+        publierCatalogue(vehicule, ancienPrix, etaitDisponible);
+    }
+    
+    /** Événements du catalogue (alertes clients) : vente, retour en stock, changement de prix d'un véhicule disponible. */
+    private void publierCatalogue(Vehicule vehicule, double ancienPrix, boolean etaitDisponible) {
+        boolean disponible = estDisponible(vehicule);
+        if (etaitDisponible && !disponible) {
+            catalogue.publier(EvenementCatalogue.vehiculeVendu(vehicule));
+            return;
+        }
+        if (!etaitDisponible && disponible) {
+            catalogue.publier(EvenementCatalogue.retourEnStock(vehicule));
+        } else if (disponible && vehicule.getPrix() != ancienPrix) {
+            catalogue.publier(EvenementCatalogue.prixModifie(vehicule, ancienPrix));
+        }
+    }
+    
+    private static boolean estDisponible(Vehicule vehicule) {
+        return vehicule.isEnStock() && vehicule.getStock() > 0;
+    }
+    
+    /** Delta de stock : l'état complet du véhicule, pour que le client remplace sa ligne telle quelle. */
+    private void publierStock(String type, Vehicule vehicule) {
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("id", vehicule.getId());
+        delta.put("marque", vehicule.getMarque());
+        delta.put("modele", vehicule.getModele());
+        delta.put("type", vehicule.getType());
+        delta.put("prix", vehicule.getPrix());
+        delta.put("enStock", vehicule.isEnStock());
+        delta.put("stock", vehicule.getStock());
+        evenementService.publier(EvenementService.SUJET_STOCK, type, delta);
+    }
 }
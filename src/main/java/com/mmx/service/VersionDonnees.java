@@ -0,0 +1,48 @@
+package com.mmx.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteur de modifications d'un ensemble de données (catalogue, factures).
+ *
+ * Sert de validateur HTTP : l'ETag est dérivé de la version et Last-Modified de la date
+ * du dernier changement, sans avoir à lire ni sérialiser les données. La version est
+ * incrémentée après chaque écriture ; un lecteur qui la lit avant les données ne peut
+ * donc pas associer un ETag récent à un contenu ancien.
+ *
+ * Le compteur repart à 1 à chaque démarrage : l'ETag contient aussi une époque propre au
+ * processus, pour qu'un ETag émis avant un redémarrage (ou par une autre instance) ne valide
+ * pas un contenu différent portant le même numéro de version.
+ */
+public final class VersionDonnees {
+
+    private static final String EPOQUE = Long.toString(System.currentTimeMillis(), 36)
+        + Integer.toString(ThreadLocalRandom.current().nextInt(1 << 20), 36);
+
+    private final String nom;
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile long derniereModification = System.currentTimeMillis();
+
+    public VersionDonnees(String nom) {
+        this.nom = nom;
+    }
+
+    public void incrementer() {
+        derniereModification = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getDerniereModification() {
+        return derniereModification;
+    }
+
+    /** ETag faible : la même version peut être servie compressée ou non. */
+    public String etag(long version) {
+        return "W/\"" + nom + "-" + EPOQUE + "-" + version + "\"";
+    }
+}